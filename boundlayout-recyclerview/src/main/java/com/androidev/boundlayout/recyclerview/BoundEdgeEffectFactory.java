@@ -0,0 +1,178 @@
+package com.androidev.boundlayout.recyclerview;
+
+import android.graphics.Canvas;
+import android.support.annotation.FloatRange;
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+import android.widget.EdgeEffect;
+
+import com.androidev.boundlayout.BoundLayout;
+import com.androidev.boundlayout.BoundSpring;
+
+/**
+ * Bounce for a RecyclerView without wrapping it in {@link BoundLayout}, the list is translated from its own
+ * overscroll path with the same resistance and spring, nothing is drawn and no layout pass is requested.
+ * <p>
+ * an instance serves a single RecyclerView, as the edges of an axis share one translation
+ */
+public class BoundEdgeEffectFactory extends RecyclerView.EdgeEffectFactory {
+
+    private float mStiffness = BoundSpring.DEFAULT_STIFFNESS;
+    private float mDampingRatio = BoundSpring.DEFAULT_DAMPING_RATIO;
+    private RecyclerView mView;
+    private Bounce mHorizontalBounce;
+    private Bounce mVerticalBounce;
+
+    @NonNull
+    @Override
+    protected EdgeEffect createEdgeEffect(RecyclerView view, int direction) {
+        if (mView != null && mView != view) {
+            throw new IllegalStateException("BoundEdgeEffectFactory can serve only one RecyclerView");
+        }
+        mView = view;
+        boolean horizontal = direction == DIRECTION_LEFT || direction == DIRECTION_RIGHT;
+        int sign = direction == DIRECTION_LEFT || direction == DIRECTION_TOP ? 1 : -1;
+        Bounce bounce;
+        if (horizontal) {
+            if (mHorizontalBounce == null) {
+                mHorizontalBounce = new Bounce(view, BoundLayout.HORIZONTAL);
+            }
+            bounce = mHorizontalBounce;
+        } else {
+            if (mVerticalBounce == null) {
+                mVerticalBounce = new Bounce(view, BoundLayout.VERTICAL);
+            }
+            bounce = mVerticalBounce;
+        }
+        bounce.setStiffness(mStiffness);
+        bounce.setDampingRatio(mDampingRatio);
+        return new BoundEdgeEffect(view, bounce, sign);
+    }
+
+    /**
+     * @param stiffness stiffness of the bounce spring, higher settles faster, default 400
+     */
+    public void setStiffness(float stiffness) {
+        if (mHorizontalBounce != null) mHorizontalBounce.setStiffness(stiffness);
+        if (mVerticalBounce != null) mVerticalBounce.setStiffness(stiffness);
+        mStiffness = stiffness;
+    }
+
+    /**
+     * @param dampingRatio damping ratio of the bounce spring, below 1 overshoots, default 1
+     */
+    public void setDampingRatio(@FloatRange(from = 0) float dampingRatio) {
+        if (mHorizontalBounce != null) mHorizontalBounce.setDampingRatio(dampingRatio);
+        if (mVerticalBounce != null) mVerticalBounce.setDampingRatio(dampingRatio);
+        mDampingRatio = dampingRatio;
+    }
+
+    /**
+     * translation of the list along an axis, pulled by the edge effects and settled back by the spring
+     */
+    private static final class Bounce extends BoundSpring {
+
+        private final RecyclerView mView;
+        private final int mAxis;
+
+        Bounce(RecyclerView view, int axis) {
+            mView = view;
+            mAxis = axis;
+        }
+
+        @Override
+        protected void onSpringUpdate(float value, long frameTimeNanos) {
+            setTranslation(value);
+        }
+
+        @Override
+        protected void onSpringEnd() {
+        }
+
+        /**
+         * @param distance pulled distance in px, positive for the leading edge
+         */
+        void pull(float distance) {
+            cancel();
+            setTranslation(getTranslation() + distance / BoundLayout.DRAGGING_RESISTANCE);
+        }
+
+        /**
+         * @param velocity px per second, positive towards the trailing edge
+         */
+        void release(float velocity) {
+            float translation = getTranslation();
+            if (translation != 0 || velocity != 0) {
+                start(translation, velocity, 0);
+            }
+        }
+
+        int getSize() {
+            return mAxis == BoundLayout.HORIZONTAL ? mView.getWidth() : mView.getHeight();
+        }
+
+        float getTranslation() {
+            return mAxis == BoundLayout.HORIZONTAL ? mView.getTranslationX() : mView.getTranslationY();
+        }
+
+        private void setTranslation(float translation) {
+            if (mAxis == BoundLayout.HORIZONTAL) {
+                mView.setTranslationX(translation);
+            } else {
+                mView.setTranslationY(translation);
+            }
+        }
+    }
+
+    private static final class BoundEdgeEffect extends EdgeEffect {
+
+        private final Bounce mBounce;
+        private final int mSign;
+
+        BoundEdgeEffect(RecyclerView view, Bounce bounce, int sign) {
+            super(view.getContext());
+            mBounce = bounce;
+            mSign = sign;
+        }
+
+        @Override
+        public void onPull(float deltaDistance) {
+            onPull(deltaDistance, 0.5f);
+        }
+
+        @Override
+        public void onPull(float deltaDistance, float displacement) {
+            // deltaDistance is the fraction of the list size pulled away from this edge
+            mBounce.pull(mSign * deltaDistance * mBounce.getSize());
+        }
+
+        @Override
+        public void onRelease() {
+            mBounce.release(0);
+        }
+
+        @Override
+        public void onAbsorb(int velocity) {
+            // velocity of the fling hitting this edge, the list keeps moving out of its bound before settling back
+            mBounce.release(mSign * velocity / BoundLayout.DRAGGING_RESISTANCE);
+        }
+
+        @Override
+        public void finish() {
+            mBounce.end();
+        }
+
+        @Override
+        public boolean isFinished() {
+            // a pulled list must look unfinished, so RecyclerView releases it once the finger reverses,
+            // this causes no invalidate loop as nothing is drawn
+            return !mBounce.isRunning() && mBounce.getTranslation() == 0;
+        }
+
+        @Override
+        public boolean draw(Canvas canvas) {
+            // the translation is applied to the render node of the list, there is nothing to draw
+            return false;
+        }
+    }
+}
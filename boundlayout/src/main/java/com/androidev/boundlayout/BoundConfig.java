@@ -0,0 +1,34 @@
+package com.androidev.boundlayout;
+
+import android.content.Context;
+import android.view.ViewConfiguration;
+
+/**
+ * Immutable touch constants shared by all instances on the same display density,
+ * looked up once instead of on every construction.
+ */
+final class BoundConfig {
+
+    private static BoundConfig sConfig;
+
+    final float density;
+    final int touchSlop;
+    final int minimumVelocity;
+    final int maximumVelocity;
+
+    private BoundConfig(Context context, float density) {
+        this.density = density;
+        ViewConfiguration configuration = ViewConfiguration.get(context);
+        touchSlop = configuration.getScaledTouchSlop();
+        minimumVelocity = configuration.getScaledMinimumFlingVelocity();
+        maximumVelocity = configuration.getScaledMaximumFlingVelocity();
+    }
+
+    static BoundConfig get(Context context) {
+        float density = context.getResources().getDisplayMetrics().density;
+        if (sConfig == null || sConfig.density != density) {
+            sConfig = new BoundConfig(context, density);
+        }
+        return sConfig;
+    }
+}
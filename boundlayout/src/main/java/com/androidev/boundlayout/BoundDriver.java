@@ -0,0 +1,83 @@
+package com.androidev.boundlayout;
+
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+
+/**
+ * Process-wide frame driver stepping the springs of all instances in shared mode from one
+ * {@link Choreographer} callback, at most {@link #setMaxRunning(int)} springs run at a time,
+ * the earliest ones are finished at once when more start.
+ */
+final class BoundDriver implements Choreographer.FrameCallback {
+
+    private static BoundDriver sDriver;
+
+    private int mMaxRunning = 1;
+    private boolean isPosted;
+    private final Choreographer mChoreographer;
+    private final ArrayList<BoundSpring> mSprings = new ArrayList<>();
+    private final ArrayList<BoundSpring> mFrameSprings = new ArrayList<>();
+
+    private BoundDriver() {
+        mChoreographer = Choreographer.getInstance();
+    }
+
+    /**
+     * must be called on the main thread
+     */
+    static BoundDriver getInstance() {
+        if (sDriver == null) {
+            sDriver = new BoundDriver();
+        }
+        return sDriver;
+    }
+
+    void setMaxRunning(int maxRunning) {
+        if (maxRunning < 1) {
+            throw new IllegalArgumentException("at least one spring must be able to run");
+        }
+        mMaxRunning = maxRunning;
+        finishOverflow();
+    }
+
+    void add(BoundSpring spring) {
+        if (mSprings.contains(spring)) return;
+        mSprings.add(spring);
+        finishOverflow();
+        if (!isPosted && !mSprings.isEmpty()) {
+            isPosted = true;
+            mChoreographer.postFrameCallback(this);
+        }
+    }
+
+    void remove(BoundSpring spring) {
+        mSprings.remove(spring);
+        if (isPosted && mSprings.isEmpty()) {
+            isPosted = false;
+            mChoreographer.removeFrameCallback(this);
+        }
+    }
+
+    private void finishOverflow() {
+        while (mSprings.size() > mMaxRunning) {
+            // ending removes the spring from the driver
+            mSprings.get(0).end();
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        isPosted = false;
+        // springs may end or start others while stepping
+        mFrameSprings.addAll(mSprings);
+        for (int i = 0, size = mFrameSprings.size(); i < size; i++) {
+            mFrameSprings.get(i).doFrame(frameTimeNanos);
+        }
+        mFrameSprings.clear();
+        if (!isPosted && !mSprings.isEmpty()) {
+            isPosted = true;
+            mChoreographer.postFrameCallback(this);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.androidev.boundlayout;
+
+import android.view.View;
+
+import java.util.Arrays;
+
+/**
+ * Constraint state of a header or footer along its axis, rebuilt on layout only,
+ * so that offsetting the edge while dragging or settling is plain arithmetic.
+ */
+final class BoundEdge {
+
+    private static final int[] EMPTY_DETENTS = new int[0];
+
+    /**
+     * 1 for the header which is revealed by a positive content offset, -1 for the footer
+     */
+    final int sign;
+    /**
+     * {@link BoundLayout#HORIZONTAL} for left and right edges, {@link BoundLayout#VERTICAL} for top and bottom edges
+     */
+    final int axis;
+    View view;
+    int displayMode;
+    /**
+     * size of the view along the axis
+     */
+    int extent;
+    /**
+     * offset of the view when the content is at rest
+     */
+    int restOffset;
+    int minOffset;
+    int maxOffset;
+    /**
+     * fraction of the extent to reveal before the edge is armed
+     */
+    float triggerFraction;
+    boolean holdOnTrigger;
+    boolean promoteLayer;
+    EdgeTransform transform;
+    /**
+     * px revealed the content may rest at besides closed, ascending without duplicates
+     */
+    int[] detents = EMPTY_DETENTS;
+    /**
+     * current offset of the view, relative to the position it is laid out at with a zero offset
+     */
+    int offset;
+    /**
+     * translation along the axis applied by the parallax of the transform
+     */
+    int transformOffset;
+    /**
+     * whether the transform is applied to the view, and the scale and alpha of the view before it was
+     */
+    boolean transformed;
+    float restScaleX;
+    float restScaleY;
+    float restAlpha;
+    /**
+     * the view last measured and the specs it was measured with
+     */
+    View measuredView;
+    int widthMeasureSpec;
+    int heightMeasureSpec;
+
+    BoundEdge(int sign, int axis) {
+        this.sign = sign;
+        this.axis = axis;
+    }
+
+    void update(View view) {
+        if (view != this.view) {
+            transformed = false;
+            transformOffset = 0;
+        }
+        this.view = view;
+        if (view == null) {
+            displayMode = BoundLayout.LayoutParams.DISPLAY_MODE_EDGE;
+            extent = restOffset = minOffset = maxOffset = offset = 0;
+            triggerFraction = BoundLayout.LayoutParams.DEFAULT_TRIGGER_FRACTION;
+            holdOnTrigger = false;
+            promoteLayer = false;
+            transform = null;
+            transformOffset = 0;
+            detents = EMPTY_DETENTS;
+            return;
+        }
+        BoundLayout.LayoutParams lp = (BoundLayout.LayoutParams) view.getLayoutParams();
+        displayMode = lp.getDisplayMode();
+        triggerFraction = lp.getTriggerFraction();
+        holdOnTrigger = lp.isHoldOnTrigger();
+        promoteLayer = lp.isPromoteLayer();
+        transform = lp.getTransform();
+        extent = axis == BoundLayout.HORIZONTAL ? view.getMeasuredWidth() : view.getMeasuredHeight();
+        updateDetents(lp.getDetentFractions(), lp.getDetentSizes());
+        updateBounds();
+    }
+
+    /**
+     * resolve the rest offset and the offset range from the display mode and the extent
+     */
+    void updateBounds() {
+        switch (displayMode) {
+            case BoundLayout.LayoutParams.DISPLAY_MODE_FIXED:
+                restOffset = minOffset = maxOffset = sign * extent;
+                break;
+            case BoundLayout.LayoutParams.DISPLAY_MODE_SCROLL:
+                restOffset = 0;
+                minOffset = Integer.MIN_VALUE;
+                maxOffset = Integer.MAX_VALUE;
+                break;
+            default:
+                // follow the content until fully revealed, then stick to the edge
+                restOffset = 0;
+                minOffset = sign > 0 ? Integer.MIN_VALUE : -extent;
+                maxOffset = sign > 0 ? extent : Integer.MAX_VALUE;
+                break;
+        }
+    }
+
+    void updateDetents(float[] fractions, int[] sizes) {
+        int count = fractions.length + sizes.length;
+        if (count == 0) {
+            detents = EMPTY_DETENTS;
+            return;
+        }
+        int[] resolved = detents.length == count ? detents : new int[count];
+        for (int i = 0; i < fractions.length; i++) {
+            resolved[i] = Math.round(fractions[i] * extent);
+        }
+        System.arraycopy(sizes, 0, resolved, fractions.length, sizes.length);
+        Arrays.sort(resolved);
+        // closed is always a detent, drop it and duplicates
+        int unique = 0;
+        for (int size : resolved) {
+            if (size > 0 && (unique == 0 || resolved[unique - 1] != size)) {
+                resolved[unique++] = size;
+            }
+        }
+        detents = unique == count ? resolved : Arrays.copyOf(resolved, unique);
+    }
+
+    /**
+     * @return how many pixels of the view along the axis are revealed in the bounds
+     */
+    int reveal() {
+        if (displayMode == BoundLayout.LayoutParams.DISPLAY_MODE_FIXED) return extent;
+        int reveal = sign * offset;
+        return reveal <= 0 ? 0 : reveal > extent ? extent : reveal;
+    }
+
+    /**
+     * @return the offset of the view for the given content offset
+     */
+    int resolve(int contentOffset) {
+        return contentOffset < minOffset ? minOffset : contentOffset > maxOffset ? maxOffset : contentOffset;
+    }
+}
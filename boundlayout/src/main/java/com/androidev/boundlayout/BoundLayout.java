@@ -3,54 +3,168 @@ package com.androidev.boundlayout;
 import android.annotation.TargetApi;
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.graphics.Canvas;
 import android.os.Build;
+import android.os.Looper;
+import android.os.MessageQueue;
 import android.support.annotation.IntDef;
+import android.support.annotation.LayoutRes;
+import android.support.annotation.RestrictTo;
+import android.support.v4.view.NestedScrollingParent2;
+import android.support.v4.view.NestedScrollingParentHelper;
 import android.support.v4.view.ViewCompat;
 import android.util.AttributeSet;
+import android.view.Choreographer;
+import android.view.Display;
+import android.view.LayoutInflater;
 import android.view.MotionEvent;
 import android.view.View;
-import android.view.ViewConfiguration;
+import android.view.VelocityTracker;
 import android.view.ViewGroup;
-import android.view.animation.Animation;
-import android.view.animation.DecelerateInterpolator;
-import android.view.animation.Transformation;
+import android.view.WindowManager;
 import android.widget.FrameLayout;
+import android.widget.OverScroller;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.Arrays;
 
-public class BoundLayout extends FrameLayout {
+import static android.support.annotation.RestrictTo.Scope.LIBRARY_GROUP;
 
-    @IntDef({HORIZONTAL, VERTICAL})
+public class BoundLayout extends FrameLayout implements NestedScrollingParent2 {
+
+    @IntDef({HORIZONTAL, VERTICAL, BOTH})
     @Retention(RetentionPolicy.SOURCE)
     private @interface OrientationMode {
     }
 
+    @IntDef({STATE_IDLE, STATE_DRAGGING, STATE_SETTLING, STATE_HOLDING})
+    @Retention(RetentionPolicy.SOURCE)
+    private @interface BoundState {
+    }
+
+    @IntDef({EDGE_HEADER, EDGE_FOOTER})
+    @Retention(RetentionPolicy.SOURCE)
+    private @interface Edge {
+    }
+
+    @IntDef({OFFSET_MODE_LAYOUT, OFFSET_MODE_TRANSLATION})
+    @Retention(RetentionPolicy.SOURCE)
+    private @interface OffsetMode {
+    }
+
+    @IntDef({QUALITY_TIER_FULL, QUALITY_TIER_NO_TRANSFORMS, QUALITY_TIER_CACHED_EDGES, QUALITY_TIER_SHORT_SETTLE})
+    @Retention(RetentionPolicy.SOURCE)
+    private @interface QualityTier {
+    }
+
+    @IntDef({LAYER_POLICY_NONE, LAYER_POLICY_EDGES, LAYER_POLICY_ALL})
+    @Retention(RetentionPolicy.SOURCE)
+    private @interface LayerPolicy {
+    }
+
     public static final int HORIZONTAL = 0;
     public static final int VERTICAL = 1;
+    public static final int BOTH = 2;
+    public static final int OFFSET_MODE_LAYOUT = 0;
+    public static final int OFFSET_MODE_TRANSLATION = 1;
+    public static final int LAYER_POLICY_NONE = 0;
+    public static final int LAYER_POLICY_EDGES = 1;
+    public static final int LAYER_POLICY_ALL = 2;
+    public static final int QUALITY_TIER_FULL = 0;
+    public static final int QUALITY_TIER_NO_TRANSFORMS = 1;
+    public static final int QUALITY_TIER_CACHED_EDGES = 2;
+    public static final int QUALITY_TIER_SHORT_SETTLE = 3;
+    public static final int STATE_IDLE = 0;
+    public static final int STATE_DRAGGING = 1;
+    public static final int STATE_SETTLING = 2;
+    public static final int STATE_HOLDING = 3;
+    public static final int EDGE_HEADER = 0;
+    public static final int EDGE_FOOTER = 1;
     private static final int MAX_CHILDREN_COUNT = 3;
+    private static final int MAX_CHILDREN_COUNT_BOTH = 5;
     private static final int DIRECTION_NONE = 0;
     private static final int DIRECTION_POSITIVE = 1;
     private static final int DIRECTION_NEGATIVE = -1;
-    private static final long ANIMATION_DURATION = 250;
-    private static final float DRAGGING_RESISTANCE = 2.1f;
-    private static final float DECELERATE_INTERPOLATION_FACTOR = 2f;
+    private static final float DETENT_PROJECTION_SECONDS = 0.1f;
+    // settles about 1.5 times faster, the settle time of a spring goes with the inverse square root of its stiffness
+    private static final float SHORT_SETTLE_STIFFNESS_SCALE = 2.25f;
+    private static final int EDGE_NONE = -1;
+    private static final float NANOS_PER_SECOND = 1000000000f;
+    private static final float DEFAULT_REFRESH_RATE = 60f;
+    /**
+     * px the finger moves for a px of bounce, public for the other artifacts of the library only
+     */
+    @RestrictTo(LIBRARY_GROUP)
+    public static final float DRAGGING_RESISTANCE = 2.1f;
 
     private View mHeader;
     private View mFooter;
     private View mContent;
     private int mDirection;
     private int mTouchSlop;
-    private int mTotalOffset;
-    private int mHeaderOffset;
-    private int mFooterOffset;
+    private int mMinimumVelocity;
+    private int mMaximumVelocity;
+    private int mFlingDirection;
     private int mContentOffset;
+    private int mBoundState;
+    private int mProgressEdge;
+    private int mArmedEdge = EDGE_NONE;
+    private int mHoldEdge = EDGE_NONE;
+    private int mPendingSnapEdge = EDGE_NONE;
+    private int mPendingSnapDetent;
     private int mOrientation;
+    private int mAxis;
+    private int mOffsetMode;
+    private int mLayerPolicy;
+    private int mQualityTier;
+    private float mStiffness;
+    private int mHeaderLayout;
+    private int mFooterLayout;
     private int mActivePointerId;
     private float mLastMotionX;
     private float mLastMotionY;
+    private float mDragOffset;
     private boolean isBeingDragged;
-    private Animation mBoundAnimation;
+    private boolean isAxisLocked;
+    private boolean isNestedScrolling;
+    private boolean isNestedFlinging;
+    private boolean isDragFramePosted;
+    private boolean isFlingTracked;
+    // scroll targets of the gesture are found at its first move, a tap or a nested scroll needs none
+    private boolean isScrollTargetsPending;
+    private boolean isPrefetchEdges;
+    private boolean isPrefetchPending;
+    private BoundSpring mBoundSpring;
+    private Choreographer mChoreographer;
+    private Choreographer.FrameCallback mDragFrameCallback;
+    private Choreographer.FrameCallback mFlingFrameCallback;
+    private OverScroller mFlingScroller;
+    private View mFlingTarget;
+    private MessageQueue.IdleHandler mPrefetchHandler;
+    private BoundMetrics mBoundMetrics;
+    private BoundPredictor mBoundPredictor;
+    private BoundQuality mBoundQuality;
+    private OnQualityChangeListener mOnQualityChangeListener;
+    private OnBoundListener mOnBoundListener;
+    private OnBoundMetricsListener mOnBoundMetricsListener;
+    private OnTriggerListener mOnTriggerListener;
+    private VelocityTracker mVelocityTracker;
+    private NestedScrollingParentHelper mNestedScrollingParentHelper;
+    private final BoundEdge mLeftEdge = new BoundEdge(1, HORIZONTAL);
+    private final BoundEdge mTopEdge = new BoundEdge(1, VERTICAL);
+    private final BoundEdge mRightEdge = new BoundEdge(-1, HORIZONTAL);
+    private final BoundEdge mBottomEdge = new BoundEdge(-1, VERTICAL);
+    // edges along the axis being bounced
+    private BoundEdge mHeaderEdge = mLeftEdge;
+    private BoundEdge mFooterEdge = mRightEdge;
+    private final ArrayList<View> mMatchParentChildren = new ArrayList<>(1);
+    // created on first use, most rows of a list are never dragged, flung or registered with resolvers
+    private ArrayList<ScrollabilityResolver> mResolvers;
+    private ArrayList<View> mLayerViews;
+    private ArrayList<View> mScrollTargets;
+    private ArrayList<ScrollabilityResolver> mScrollTargetResolvers;
 
     public BoundLayout(Context context) {
         this(context, null);
@@ -71,44 +185,57 @@ public class BoundLayout extends FrameLayout {
         init(context, attrs, defStyleAttr, defStyleRes);
     }
 
-    private void bound(float interpolatedTime) {
-        int targetValue = (mTotalOffset + (int) (-mTotalOffset * interpolatedTime));
-        int lastValue = mOrientation == HORIZONTAL ? mContent.getLeft() : mContent.getTop();
-        offsetChildren(targetValue - lastValue);
-    }
-
     private void init(Context context, AttributeSet attrs, int defStyleAttr, int defStyleRes) {
         mDirection = DIRECTION_NONE;
         mActivePointerId = MotionEvent.INVALID_POINTER_ID;
-        mTouchSlop = ViewConfiguration.get(context).getScaledTouchSlop();
-        mBoundAnimation = new Animation() {
+        BoundConfig config = BoundConfig.get(context);
+        mTouchSlop = config.touchSlop;
+        mMinimumVelocity = config.minimumVelocity;
+        mMaximumVelocity = config.maximumVelocity;
+        mNestedScrollingParentHelper = new NestedScrollingParentHelper(this);
+        mChoreographer = Choreographer.getInstance();
+        // the budget of the display is read once attached
+        mBoundMetrics = new BoundMetrics((long) (NANOS_PER_SECOND / DEFAULT_REFRESH_RATE));
+        mDragFrameCallback = new Choreographer.FrameCallback() {
             @Override
-            protected void applyTransformation(float interpolatedTime, Transformation t) {
-                bound(interpolatedTime);
+            public void doFrame(long frameTimeNanos) {
+                isDragFramePosted = false;
+                mBoundMetrics.onFrame(frameTimeNanos);
+                applyDragOffset(frameTimeNanos);
             }
         };
-        mBoundAnimation.setInterpolator(new DecelerateInterpolator(DECELERATE_INTERPOLATION_FACTOR));
-        mBoundAnimation.setAnimationListener(new Animation.AnimationListener() {
+        mBoundSpring = new BoundSpring() {
             @Override
-            public void onAnimationStart(Animation animation) {
+            protected void onSpringUpdate(float value, long frameTimeNanos) {
+                if (frameTimeNanos != 0) {
+                    mBoundMetrics.onFrame(frameTimeNanos);
+                }
+                offsetChildren(Math.round(value) - mContentOffset);
             }
 
             @Override
-            public void onAnimationEnd(Animation animation) {
+            protected void onSpringEnd() {
                 mDirection = DIRECTION_NONE;
-                mContentOffset = 0;
-                mHeaderOffset = 0;
-                mFooterOffset = 0;
-                requestLayout();
-            }
-
-            @Override
-            public void onAnimationRepeat(Animation animation) {
-
+                mBoundMetrics.onSettleEnd();
+                // offsetting already put the children where onLayout puts them for the resting offset,
+                // nothing to relayout in either offset mode
+                setBoundState(mContentOffset != 0 ? STATE_HOLDING : STATE_IDLE);
             }
-        });
+        };
         TypedArray array = context.obtainStyledAttributes(attrs, R.styleable.BoundLayout, defStyleAttr, defStyleRes);
         mOrientation = array.getInt(R.styleable.BoundLayout_orientation, HORIZONTAL);
+        setAxis(mOrientation == BOTH ? HORIZONTAL : mOrientation);
+        mOffsetMode = array.getInt(R.styleable.BoundLayout_offsetMode, OFFSET_MODE_LAYOUT);
+        mLayerPolicy = array.getInt(R.styleable.BoundLayout_layerPolicy, LAYER_POLICY_NONE);
+        mHeaderLayout = array.getResourceId(R.styleable.BoundLayout_headerLayout, 0);
+        mFooterLayout = array.getResourceId(R.styleable.BoundLayout_footerLayout, 0);
+        checkEdgeLayouts();
+        isPrefetchEdges = array.getBoolean(R.styleable.BoundLayout_prefetchEdges, true);
+        setStiffness(array.getFloat(R.styleable.BoundLayout_stiffness, BoundSpring.DEFAULT_STIFFNESS));
+        mBoundSpring.setDampingRatio(array.getFloat(R.styleable.BoundLayout_dampingRatio, BoundSpring.DEFAULT_DAMPING_RATIO));
+        setSharedDriver(array.getBoolean(R.styleable.BoundLayout_sharedDriver, false));
+        setPredictiveTouch(array.getBoolean(R.styleable.BoundLayout_predictiveTouch, false));
+        setAdaptiveQuality(array.getBoolean(R.styleable.BoundLayout_adaptiveQuality, false));
         array.recycle();
     }
 
@@ -116,11 +243,42 @@ public class BoundLayout extends FrameLayout {
     protected void onFinishInflate() {
         super.onFinishInflate();
         int childCount = getChildCount();
-        if (childCount > MAX_CHILDREN_COUNT) {
+        if (mOrientation == BOTH) {
+            if (childCount > MAX_CHILDREN_COUNT_BOTH) {
+                throw new IllegalStateException("BoundLayout can host at most five children in both orientation");
+            }
+            // edges are told by their boundEdge, the content is the child without one
+            int declaredEdges = 0;
+            for (int i = 0; i < childCount; i++) {
+                View child = getChildAt(i);
+                int boundEdge = ((LayoutParams) child.getLayoutParams()).getBoundEdge();
+                if (boundEdge == LayoutParams.BOUND_EDGE_NONE) {
+                    if (mContent != null) {
+                        throw new IllegalStateException("BoundLayout can host only one content, " +
+                                "declare the other children with boundEdge in both orientation");
+                    }
+                    mContent = child;
+                } else if ((declaredEdges & 1 << boundEdge) != 0) {
+                    throw new IllegalStateException("BoundLayout can host only one child for each boundEdge");
+                } else {
+                    declaredEdges |= 1 << boundEdge;
+                }
+            }
+            if (childCount > 0 && mContent == null) {
+                throw new IllegalStateException("BoundLayout needs a content, the child without boundEdge " +
+                        "in both orientation");
+            }
+        } else if (childCount > MAX_CHILDREN_COUNT) {
             throw new IllegalStateException("HorizontalBoundView can host at most three children");
-        }
-        if (childCount == 1) {
+        } else if (childCount == MAX_CHILDREN_COUNT && (mHeaderLayout != 0 || mFooterLayout != 0) ||
+                childCount == 2 && mHeaderLayout != 0 && mFooterLayout != 0) {
+            // the children would be told apart by the layouts, a declared edge view takes the place of the content
+            throw new IllegalStateException("BoundLayout can not declare an edge both as a child and by layout");
+        } else if (childCount == 1) {
             mContent = getChildAt(0);
+        } else if (childCount == 2 && mHeaderLayout != 0) {
+            mContent = getChildAt(0);
+            mFooter = getChildAt(1);
         } else if (childCount == 2) {
             mHeader = getChildAt(0);
             mContent = getChildAt(1);
@@ -134,80 +292,451 @@ public class BoundLayout extends FrameLayout {
     }
 
     @Override
-    protected void onLayout(boolean changed, int l, int t, int r, int b) {
-        if (mOrientation == HORIZONTAL) {
-            layoutHorizontal();
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        long frameBudget = readFrameBudget();
+        mBoundMetrics.setFrameBudget(frameBudget);
+        mBoundSpring.setFrameInterval(frameBudget);
+        isPrefetchPending = isPrefetchEdges && (mHeaderLayout != 0 || mFooterLayout != 0);
+    }
+
+    /**
+     * nanoseconds between two frames of the display the layout is attached to, read on every attach as devices
+     * run at 60, 90 or 120 Hz and the window may move to another display
+     */
+    private long readFrameBudget() {
+        Display display = Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1 ? getDisplay() : null;
+        if (display == null) {
+            WindowManager windowManager = (WindowManager) getContext().getSystemService(Context.WINDOW_SERVICE);
+            display = windowManager != null ? windowManager.getDefaultDisplay() : null;
+        }
+        float refreshRate = display != null ? display.getRefreshRate() : 0;
+        return (long) (NANOS_PER_SECOND / (refreshRate > 0 ? refreshRate : DEFAULT_REFRESH_RATE));
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        isPrefetchPending = false;
+        if (mPrefetchHandler != null) {
+            Looper.myQueue().removeIdleHandler(mPrefetchHandler);
+        }
+        stopTrackingFling();
+        flushDragOffset();
+        mBoundSpring.end();
+        recycleVelocityTracker();
+        demoteLayers();
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        boolean measureMatchParentChildren = MeasureSpec.getMode(widthMeasureSpec) != MeasureSpec.EXACTLY ||
+                MeasureSpec.getMode(heightMeasureSpec) != MeasureSpec.EXACTLY;
+        mMatchParentChildren.clear();
+        int maxWidth = 0;
+        int maxHeight = 0;
+        int childState = 0;
+        for (int i = 0, count = getChildCount(); i < count; i++) {
+            View child = getChildAt(i);
+            if (child.getVisibility() == GONE) continue;
+            LayoutParams lp = (LayoutParams) child.getLayoutParams();
+            BoundEdge edge = findEdge(child);
+            if (edge == null) {
+                measureChildWithMargins(child, widthMeasureSpec, 0, heightMeasureSpec, 0);
+            } else {
+                measureEdge(edge, child, widthMeasureSpec, heightMeasureSpec);
+            }
+            // edges lie out of the bounds along their axis, only their cross size counts
+            if (edge == null || edge.axis == VERTICAL) {
+                maxWidth = Math.max(maxWidth, child.getMeasuredWidth() + lp.leftMargin + lp.rightMargin);
+            }
+            if (edge == null || edge.axis == HORIZONTAL) {
+                maxHeight = Math.max(maxHeight, child.getMeasuredHeight() + lp.topMargin + lp.bottomMargin);
+            }
+            childState = combineMeasuredStates(childState, child.getMeasuredState());
+            if (measureMatchParentChildren && (edge == null || edge.axis == VERTICAL) && lp.width == LayoutParams.MATCH_PARENT ||
+                    measureMatchParentChildren && (edge == null || edge.axis == HORIZONTAL) && lp.height == LayoutParams.MATCH_PARENT) {
+                mMatchParentChildren.add(child);
+            }
+        }
+        maxWidth = Math.max(maxWidth + getPaddingLeft() + getPaddingRight(), getSuggestedMinimumWidth());
+        maxHeight = Math.max(maxHeight + getPaddingTop() + getPaddingBottom(), getSuggestedMinimumHeight());
+        setMeasuredDimension(resolveSizeAndState(maxWidth, widthMeasureSpec, childState),
+                resolveSizeAndState(maxHeight, heightMeasureSpec, childState << MEASURED_HEIGHT_STATE_SHIFT));
+        int count = mMatchParentChildren.size();
+        if (count > 1) {
+            for (int i = 0; i < count; i++) {
+                View child = mMatchParentChildren.get(i);
+                LayoutParams lp = (LayoutParams) child.getLayoutParams();
+                BoundEdge edge = findEdge(child);
+                int horizontalPadding = getPaddingLeft() + getPaddingRight() + lp.leftMargin + lp.rightMargin;
+                int verticalPadding = getPaddingTop() + getPaddingBottom() + lp.topMargin + lp.bottomMargin;
+                int childWidthMeasureSpec = edge != null && edge.axis == HORIZONTAL ?
+                        getEdgeMeasureSpec(widthMeasureSpec, horizontalPadding, lp.width) :
+                        lp.width == LayoutParams.MATCH_PARENT ?
+                                MeasureSpec.makeMeasureSpec(Math.max(0, getMeasuredWidth() - horizontalPadding), MeasureSpec.EXACTLY) :
+                                getChildMeasureSpec(widthMeasureSpec, horizontalPadding, lp.width);
+                int childHeightMeasureSpec = edge != null && edge.axis == VERTICAL ?
+                        getEdgeMeasureSpec(heightMeasureSpec, verticalPadding, lp.height) :
+                        lp.height == LayoutParams.MATCH_PARENT ?
+                                MeasureSpec.makeMeasureSpec(Math.max(0, getMeasuredHeight() - verticalPadding), MeasureSpec.EXACTLY) :
+                                getChildMeasureSpec(heightMeasureSpec, verticalPadding, lp.height);
+                child.measure(childWidthMeasureSpec, childHeightMeasureSpec);
+            }
+        }
+        mMatchParentChildren.clear();
+    }
+
+    /**
+     * measure an edge against the size of the layout along its axis without stretching to it, the result is kept
+     * until the specs of the edge change or the edge requests layout, so relayouts of the content leave edges alone
+     */
+    private void measureEdge(BoundEdge edge, View child, int widthMeasureSpec, int heightMeasureSpec) {
+        LayoutParams lp = (LayoutParams) child.getLayoutParams();
+        int horizontalPadding = getPaddingLeft() + getPaddingRight() + lp.leftMargin + lp.rightMargin;
+        int verticalPadding = getPaddingTop() + getPaddingBottom() + lp.topMargin + lp.bottomMargin;
+        int childWidthMeasureSpec = edge.axis == HORIZONTAL ?
+                getEdgeMeasureSpec(widthMeasureSpec, horizontalPadding, lp.width) :
+                getChildMeasureSpec(widthMeasureSpec, horizontalPadding, lp.width);
+        int childHeightMeasureSpec = edge.axis == VERTICAL ?
+                getEdgeMeasureSpec(heightMeasureSpec, verticalPadding, lp.height) :
+                getChildMeasureSpec(heightMeasureSpec, verticalPadding, lp.height);
+        // the specs of the edge cover the padding of the layout and the margins of the edge besides the incoming specs
+        if (edge.measuredView == child && edge.widthMeasureSpec == childWidthMeasureSpec &&
+                edge.heightMeasureSpec == childHeightMeasureSpec && !child.isLayoutRequested()) return;
+        child.measure(childWidthMeasureSpec, childHeightMeasureSpec);
+        edge.measuredView = child;
+        edge.widthMeasureSpec = childWidthMeasureSpec;
+        edge.heightMeasureSpec = childHeightMeasureSpec;
+    }
+
+    /**
+     * @return spec of an edge along its axis, at most the size of the layout less the padding,
+     * unspecified if the spec of the layout is unspecified
+     */
+    private static int getEdgeMeasureSpec(int spec, int padding, int childDimension) {
+        if (childDimension >= 0) {
+            return MeasureSpec.makeMeasureSpec(childDimension, MeasureSpec.EXACTLY);
+        }
+        if (MeasureSpec.getMode(spec) == MeasureSpec.UNSPECIFIED) {
+            return MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED);
+        }
+        return MeasureSpec.makeMeasureSpec(Math.max(0, MeasureSpec.getSize(spec) - padding), MeasureSpec.AT_MOST);
+    }
+
+    /**
+     * @return the edge the child is declared as, null for the content, edges are bound to views only on layout
+     */
+    private BoundEdge findEdge(View child) {
+        if (mOrientation == BOTH) {
+            switch (((LayoutParams) child.getLayoutParams()).getBoundEdge()) {
+                case LayoutParams.BOUND_EDGE_LEFT:
+                    return mLeftEdge;
+                case LayoutParams.BOUND_EDGE_TOP:
+                    return mTopEdge;
+                case LayoutParams.BOUND_EDGE_RIGHT:
+                    return mRightEdge;
+                case LayoutParams.BOUND_EDGE_BOTTOM:
+                    return mBottomEdge;
+                default:
+                    return null;
+            }
+        }
+        if (child == mHeader) {
+            return mOrientation == HORIZONTAL ? mLeftEdge : mTopEdge;
+        }
+        if (child == mFooter) {
+            return mOrientation == HORIZONTAL ? mRightEdge : mBottomEdge;
+        }
+        return null;
+    }
+
+    /**
+     * @return the edge laid out with the child, null for the content
+     */
+    private BoundEdge getLaidOutEdge(View child) {
+        return child == mLeftEdge.view ? mLeftEdge : child == mTopEdge.view ? mTopEdge :
+                child == mRightEdge.view ? mRightEdge : child == mBottomEdge.view ? mBottomEdge : null;
+    }
+
+    @Override
+    protected boolean drawChild(Canvas canvas, View child, long drawingTime) {
+        BoundEdge edge = child == mContent ? null : getLaidOutEdge(child);
+        if (edge == null) {
+            return super.drawChild(canvas, child, drawingTime);
+        }
+        if (edge.reveal() == 0) return false;
+        if (!isCoveredByContent(edge)) {
+            return super.drawChild(canvas, child, drawingTime);
+        }
+        // only the strip between the bound and the opaque content is visible, the rest would be overdrawn
+        int width = getWidth();
+        int height = getHeight();
+        float left = 0, top = 0, right = width, bottom = height;
+        if (edge.axis == HORIZONTAL) {
+            float translation = mContent.getTranslationX();
+            if (edge.sign > 0) {
+                right = Math.min(width, mContent.getLeft() + translation);
+            } else {
+                left = Math.max(0, mContent.getRight() + translation);
+            }
         } else {
-            layoutVertical();
+            float translation = mContent.getTranslationY();
+            if (edge.sign > 0) {
+                bottom = Math.min(height, mContent.getTop() + translation);
+            } else {
+                top = Math.max(0, mContent.getBottom() + translation);
+            }
         }
+        if (right <= left || bottom <= top) return false;
+        int saveCount = canvas.save();
+        canvas.clipRect(left, top, right, bottom);
+        boolean more = super.drawChild(canvas, child, drawingTime);
+        canvas.restoreToCount(saveCount);
+        return more;
     }
 
-    private void layoutHorizontal() {
+    /**
+     * @return true if the edge is drawn under the opaque content, which spans the whole layout across the edge axis
+     */
+    private boolean isCoveredByContent(BoundEdge edge) {
+        View content = mContent;
+        if (content == null || content.getVisibility() != VISIBLE || !content.isOpaque() ||
+                content.getScaleX() != 1 || content.getScaleY() != 1 || content.getRotation() != 0 ||
+                indexOfChild(edge.view) > indexOfChild(content)) {
+            return false;
+        }
+        if (edge.axis == HORIZONTAL) {
+            float translation = content.getTranslationY();
+            return content.getTop() + translation <= 0 && content.getBottom() + translation >= getHeight();
+        }
+        float translation = content.getTranslationX();
+        return content.getLeft() + translation <= 0 && content.getRight() + translation >= getWidth();
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        updateEdges();
+        if (mPendingSnapEdge != EDGE_NONE) {
+            // snapped before the edges were measured, rest there from the first layout
+            int offset = getDetentOffset(mPendingSnapEdge, mPendingSnapDetent);
+            mPendingSnapEdge = EDGE_NONE;
+            mContentOffset = offset;
+            mDragOffset = offset;
+            setBoundState(offset != 0 ? STATE_HOLDING : STATE_IDLE);
+        }
         int paddingLeft = getPaddingLeft();
         int paddingTop = getPaddingTop();
-        if (mHeader != null) {
-            int displayMode = ((LayoutParams) mHeader.getLayoutParams()).getDisplayMode();
-            if (displayMode == LayoutParams.DISPLAY_MODE_FIXED)
-                mHeaderOffset = mHeader.getMeasuredWidth();
-            mHeader.layout(
-                    mHeaderOffset + paddingLeft - mHeader.getMeasuredWidth(),
-                    paddingTop,
-                    mHeaderOffset + paddingLeft,
-                    paddingTop + mHeader.getMeasuredHeight()
-            );
-        }
-        if (mFooter != null) {
-            int displayMode = ((LayoutParams) mFooter.getLayoutParams()).getDisplayMode();
-            if (displayMode == LayoutParams.DISPLAY_MODE_FIXED)
-                mFooterOffset = mFooter.getMeasuredWidth();
-            mFooter.layout(
-                    mFooterOffset + paddingLeft + getMeasuredWidth(),
-                    paddingTop,
-                    mFooterOffset + paddingLeft + getMeasuredWidth() + mFooter.getMeasuredWidth(),
-                    paddingTop + mFooter.getMeasuredHeight()
-            );
-        }
+        layoutEdge(mLeftEdge);
+        layoutEdge(mTopEdge);
+        layoutEdge(mRightEdge);
+        layoutEdge(mBottomEdge);
         if (mContent != null) {
-            mContent.layout(
-                    mContentOffset + paddingLeft,
-                    paddingTop,
-                    mContentOffset + paddingLeft + mContent.getMeasuredWidth(),
-                    paddingTop + mContent.getMeasuredHeight());
+            int offset = mOffsetMode == OFFSET_MODE_TRANSLATION ? 0 : mContentOffset;
+            int left = paddingLeft + (mAxis == HORIZONTAL ? offset : 0);
+            int top = paddingTop + (mAxis == VERTICAL ? offset : 0);
+            mContent.layout(left, top, left + mContent.getMeasuredWidth(), top + mContent.getMeasuredHeight());
+            if (mOffsetMode == OFFSET_MODE_TRANSLATION) {
+                setChildTranslation(mContent, mAxis, mContentOffset);
+            }
+        }
+    }
+
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+        super.dispatchDraw(canvas);
+        if (isPrefetchPending) {
+            // inflate the deferred header and footer once the first frame is drawn and the thread is idle
+            isPrefetchPending = false;
+            if (mPrefetchHandler == null) {
+                mPrefetchHandler = new MessageQueue.IdleHandler() {
+                    @Override
+                    public boolean queueIdle() {
+                        inflateHeader();
+                        inflateFooter();
+                        return false;
+                    }
+                };
+            }
+            Looper.myQueue().addIdleHandler(mPrefetchHandler);
+        }
+    }
+
+    private void inflateHeader() {
+        if (mHeaderLayout == 0) return;
+        View header = LayoutInflater.from(getContext()).inflate(mHeaderLayout, this, false);
+        if (!canAttachInPlace()) {
+            setHeaderView(header);
+            return;
+        }
+        mHeaderLayout = 0;
+        mHeader = header;
+        addViewInLayout(header, 0, header.getLayoutParams(), true);
+        attachInPlace(header);
+    }
+
+    private void inflateFooter() {
+        if (mFooterLayout == 0) return;
+        View footer = LayoutInflater.from(getContext()).inflate(mFooterLayout, this, false);
+        if (!canAttachInPlace()) {
+            setFooterView(footer);
+            return;
         }
+        mFooterLayout = 0;
+        mFooter = footer;
+        addViewInLayout(footer, getChildCount(), footer.getLayoutParams(), true);
+        attachInPlace(footer);
     }
 
-    private void layoutVertical() {
+    /**
+     * @return true if the layout is laid out and no layout pass is pending, which would lay out the new edge anyway
+     */
+    private boolean canAttachInPlace() {
+        return ViewCompat.isLaidOut(this) && !isLayoutRequested();
+    }
+
+    /**
+     * measure and lay out an edge inflated while dragging on its own, so the gesture goes on without
+     * a layout pass of the whole layout, against the current size since the incoming specs are not kept
+     */
+    private void attachInPlace(View child) {
+        BoundEdge edge = findEdge(child);
+        if (edge == null) return;
+        measureEdge(edge, child, MeasureSpec.makeMeasureSpec(getMeasuredWidth(), MeasureSpec.EXACTLY),
+                MeasureSpec.makeMeasureSpec(getMeasuredHeight(), MeasureSpec.EXACTLY));
+        edge.update(child);
+        layoutEdge(edge);
+        invalidate();
+    }
+
+    private void updateEdges() {
+        if (mOrientation == BOTH) {
+            View left = null, top = null, right = null, bottom = null;
+            for (int i = 0, count = getChildCount(); i < count; i++) {
+                View child = getChildAt(i);
+                switch (((LayoutParams) child.getLayoutParams()).getBoundEdge()) {
+                    case LayoutParams.BOUND_EDGE_LEFT:
+                        left = child;
+                        break;
+                    case LayoutParams.BOUND_EDGE_TOP:
+                        top = child;
+                        break;
+                    case LayoutParams.BOUND_EDGE_RIGHT:
+                        right = child;
+                        break;
+                    case LayoutParams.BOUND_EDGE_BOTTOM:
+                        bottom = child;
+                        break;
+                }
+            }
+            mLeftEdge.update(left);
+            mTopEdge.update(top);
+            mRightEdge.update(right);
+            mBottomEdge.update(bottom);
+        } else {
+            boolean horizontal = mOrientation == HORIZONTAL;
+            mLeftEdge.update(horizontal ? mHeader : null);
+            mTopEdge.update(horizontal ? null : mHeader);
+            mRightEdge.update(horizontal ? mFooter : null);
+            mBottomEdge.update(horizontal ? null : mFooter);
+        }
+    }
+
+    /**
+     * lay out the edge out of the bounds next to the padding on its side, shifted by its offset
+     */
+    private void layoutEdge(BoundEdge edge) {
+        if (edge.view == null) return;
+        // where the edge is laid out along its axis with a zero offset
+        int position;
+        if (edge.axis == HORIZONTAL) {
+            position = edge.sign > 0 ? getPaddingLeft() - edge.extent : getMeasuredWidth() - getPaddingRight();
+        } else {
+            position = edge.sign > 0 ? getPaddingTop() - edge.extent : getMeasuredHeight() - getPaddingBottom();
+        }
+        edge.offset = edge.resolve(edge.axis == mAxis ? mContentOffset : 0);
+        if (edge.transform == null) {
+            // the transform was removed from the layout params
+            clearTransform(edge);
+        }
+        if (mOffsetMode == OFFSET_MODE_TRANSLATION) {
+            layoutChild(edge.view, edge.axis, position + edge.restOffset);
+            setChildTranslation(edge.view, edge.axis, edge.offset - edge.restOffset + edge.transformOffset);
+        } else {
+            layoutChild(edge.view, edge.axis, position + edge.offset);
+            // the translation of an edge laid out at its offset belongs to the app, unless it has a parallax
+            if (edge.transform != null) {
+                setChildTranslation(edge.view, edge.axis, edge.transformOffset);
+            }
+        }
+        transformEdge(edge);
+    }
+
+    private void layoutChild(View child, int axis, int position) {
         int paddingLeft = getPaddingLeft();
         int paddingTop = getPaddingTop();
-        if (mHeader != null) {
-            int displayMode = ((LayoutParams) mHeader.getLayoutParams()).getDisplayMode();
-            if (displayMode == LayoutParams.DISPLAY_MODE_FIXED)
-                mHeaderOffset = mHeader.getMeasuredHeight();
-            mHeader.layout(
-                    paddingLeft,
-                    mHeaderOffset + paddingTop - mHeader.getMeasuredHeight(),
-                    paddingLeft + mHeader.getMeasuredWidth(),
-                    mHeaderOffset + paddingTop
-            );
-        }
-        if (mFooter != null) {
-            int displayMode = ((LayoutParams) mFooter.getLayoutParams()).getDisplayMode();
-            if (displayMode == LayoutParams.DISPLAY_MODE_FIXED)
-                mFooterOffset = mFooter.getMeasuredHeight();
-            mFooter.layout(
-                    paddingLeft,
-                    mFooterOffset + paddingTop + getMeasuredHeight(),
-                    paddingLeft + mFooter.getMeasuredWidth(),
-                    mFooterOffset + paddingTop + getMeasuredHeight() + mFooter.getMeasuredHeight()
-            );
+        if (axis == HORIZONTAL) {
+            child.layout(position, paddingTop, position + child.getMeasuredWidth(), paddingTop + child.getMeasuredHeight());
+        } else {
+            child.layout(paddingLeft, position, paddingLeft + child.getMeasuredWidth(), position + child.getMeasuredHeight());
         }
-        if (mContent != null) {
-            mContent.layout(
-                    paddingLeft,
-                    mContentOffset + paddingTop,
-                    paddingLeft + mContent.getMeasuredWidth(),
-                    mContentOffset + paddingTop + mContent.getMeasuredHeight());
+    }
+
+    private void setChildTranslation(View child, int axis, int translation) {
+        if (axis == HORIZONTAL) {
+            child.setTranslationX(translation);
+        } else {
+            child.setTranslationY(translation);
+        }
+    }
+
+    /**
+     * bounce along the axis, only changed while the content is in its bound
+     */
+    private void setAxis(int axis) {
+        mAxis = axis;
+        mHeaderEdge = axis == HORIZONTAL ? mLeftEdge : mTopEdge;
+        mFooterEdge = axis == HORIZONTAL ? mRightEdge : mBottomEdge;
+    }
+
+    @Override
+    public boolean dispatchTouchEvent(MotionEvent ev) {
+        // sampled here, children which disallow intercepting hide the rest of the gesture from onInterceptTouchEvent
+        int action = ev.getActionMasked();
+        if (action == MotionEvent.ACTION_DOWN) {
+            initOrResetVelocityTracker();
+        } else {
+            initVelocityTrackerIfNotExists();
+        }
+        mVelocityTracker.addMovement(ev);
+        // the content flung by itself, nested scrolling children report their flings instead
+        if (action == MotionEvent.ACTION_UP && isEnabled() && !isBeingDragged && !isNestedScrolling) {
+            trackContentFling(ev.getPointerId(ev.getActionIndex()));
+        }
+        boolean handled = super.dispatchTouchEvent(ev);
+        if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+            mActivePointerId = MotionEvent.INVALID_POINTER_ID;
+            if (!isFlingTracked) {
+                clearScrollTargets();
+            }
+            recycleVelocityTracker();
+        }
+        return handled;
+    }
+
+    /**
+     * follow the fling of the scroll targets under the lifted finger, along the dominant axis in both orientation
+     * if the gesture did not lock one
+     */
+    private void trackContentFling(int pointerId) {
+        resolvePendingScrollTargets();
+        mVelocityTracker.computeCurrentVelocity(1000, mMaximumVelocity);
+        float velocityX = mVelocityTracker.getXVelocity(pointerId);
+        float velocityY = mVelocityTracker.getYVelocity(pointerId);
+        if (!isAxisLocked && mContentOffset == 0 && mBoundState == STATE_IDLE) {
+            setAxis(Math.abs(velocityX) >= Math.abs(velocityY) ? HORIZONTAL : VERTICAL);
         }
+        trackFling(null, -(mAxis == HORIZONTAL ? velocityX : velocityY));
     }
 
     @Override
@@ -219,17 +748,22 @@ public class BoundLayout extends FrameLayout {
 
             case MotionEvent.ACTION_DOWN:
                 mActivePointerId = ev.getPointerId(0);
-                isBeingDragged = false;
+                stopTrackingFling();
+                isBeingDragged = catchBound();
+                isAxisLocked = mOrientation != BOTH || mContentOffset != 0;
                 pointerIndex = ev.findPointerIndex(mActivePointerId);
                 if (pointerIndex < 0) {
                     return false;
                 }
                 mLastMotionX = ev.getX(pointerIndex);
                 mLastMotionY = ev.getY(pointerIndex);
+                clearScrollTargets();
+                isScrollTargetsPending = !isBeingDragged;
                 break;
 
             case MotionEvent.ACTION_MOVE:
-                if (mActivePointerId == MotionEvent.INVALID_POINTER_ID) {
+                // nested scrolling child reports its unconsumed scroll, no need to hit-test
+                if (isNestedScrolling || mActivePointerId == MotionEvent.INVALID_POINTER_ID) {
                     return false;
                 }
                 pointerIndex = ev.findPointerIndex(mActivePointerId);
@@ -242,7 +776,6 @@ public class BoundLayout extends FrameLayout {
             case MotionEvent.ACTION_UP:
             case MotionEvent.ACTION_CANCEL:
                 isBeingDragged = false;
-                mActivePointerId = MotionEvent.INVALID_POINTER_ID;
                 break;
         }
         return isBeingDragged;
@@ -256,7 +789,8 @@ public class BoundLayout extends FrameLayout {
 
             case MotionEvent.ACTION_DOWN:
                 mActivePointerId = ev.getPointerId(0);
-                isBeingDragged = false;
+                // already caught in onInterceptTouchEvent if the content was settling
+                isBeingDragged = isBeingDragged || catchBound();
                 break;
 
             case MotionEvent.ACTION_MOVE: {
@@ -264,20 +798,21 @@ public class BoundLayout extends FrameLayout {
                 if (pointerIndex < 0) {
                     return false;
                 }
+                boolean wasBeingDragged = isBeingDragged;
                 startDragging(ev.getX(pointerIndex), ev.getY(pointerIndex));
-                float x = ev.getX(pointerIndex);
-                float y = ev.getY(pointerIndex);
-                float value = mOrientation == HORIZONTAL ? x : y;
-                float lastValue = mOrientation == HORIZONTAL ? mLastMotionX : mLastMotionY;
                 if (isBeingDragged) {
-                    int offset = (int) ((value - lastValue) / DRAGGING_RESISTANCE);
-                    if (mDirection == DIRECTION_POSITIVE && mContentOffset + offset < 0 ||
-                            mDirection == DIRECTION_NEGATIVE && mContentOffset + offset > 0) {
-                        offset = -mContentOffset;
+                    // samples batched since the last event are only meaningful once dragging
+                    if (wasBeingDragged) {
+                        for (int i = 0, size = ev.getHistorySize(); i < size; i++) {
+                            addDragSample(ev.getHistoricalEventTime(i),
+                                    ev.getHistoricalX(pointerIndex, i), ev.getHistoricalY(pointerIndex, i));
+                        }
                     }
-                    offsetChildren(offset);
-                    mLastMotionX = x;
-                    mLastMotionY = y;
+                    addDragSample(ev.getEventTime(), ev.getX(pointerIndex), ev.getY(pointerIndex));
+                    // batched samples show the finger kept moving through a slow frame, rather than pausing
+                    long sampleTime = wasBeingDragged && ev.getHistorySize() > 0 ?
+                            ev.getHistoricalEventTime(0) : ev.getEventTime();
+                    scheduleDragFrame(sampleTime * 1000000);
                 }
                 break;
             }
@@ -286,9 +821,18 @@ public class BoundLayout extends FrameLayout {
             case MotionEvent.ACTION_UP:
                 if (isBeingDragged) {
                     isBeingDragged = false;
-                    animateOffsetToZero();
+                    flushDragOffset();
+                    float velocity = 0;
+                    if (action == MotionEvent.ACTION_UP) {
+                        mVelocityTracker.computeCurrentVelocity(1000, mMaximumVelocity);
+                        velocity = mAxis == HORIZONTAL ?
+                                mVelocityTracker.getXVelocity(mActivePointerId) :
+                                mVelocityTracker.getYVelocity(mActivePointerId);
+                    }
+                    settle(velocity / DRAGGING_RESISTANCE, action == MotionEvent.ACTION_UP);
                 }
                 mActivePointerId = MotionEvent.INVALID_POINTER_ID;
+                clearScrollTargets();
                 return false;
 
             case MotionEvent.ACTION_POINTER_DOWN: {
@@ -299,6 +843,7 @@ public class BoundLayout extends FrameLayout {
                 mActivePointerId = ev.getPointerId(pointerIndex);
                 mLastMotionX = ev.getX(pointerIndex);
                 mLastMotionY = ev.getY(pointerIndex);
+                resetPredictor();
                 break;
             }
 
@@ -310,6 +855,7 @@ public class BoundLayout extends FrameLayout {
                     mActivePointerId = ev.getPointerId(newPointerIndex);
                     mLastMotionX = ev.getX(newPointerIndex);
                     mLastMotionY = ev.getY(newPointerIndex);
+                    resetPredictor();
                 }
                 break;
         }
@@ -317,193 +863,1040 @@ public class BoundLayout extends FrameLayout {
         return true;
     }
 
-    private boolean canScroll(View view, float x, float y, int direction) {
+    @Override
+    public boolean onStartNestedScroll(View child, View target, int nestedScrollAxes) {
+        return onStartNestedScroll(child, target, nestedScrollAxes, ViewCompat.TYPE_TOUCH);
+    }
+
+    @Override
+    public boolean onStartNestedScroll(View child, View target, int axes, int type) {
+        int axis = mOrientation == BOTH ? ViewCompat.SCROLL_AXIS_HORIZONTAL | ViewCompat.SCROLL_AXIS_VERTICAL :
+                mOrientation == HORIZONTAL ? ViewCompat.SCROLL_AXIS_HORIZONTAL : ViewCompat.SCROLL_AXIS_VERTICAL;
+        if (!isEnabled() || (axes & axis) == 0) return false;
+        // a fling only bounces the content from rest, a held content stops the target from flinging already
+        return type == ViewCompat.TYPE_TOUCH ? !isBeingDragged : mContentOffset == 0;
+    }
+
+    @Override
+    public void onNestedScrollAccepted(View child, View target, int axes) {
+        onNestedScrollAccepted(child, target, axes, ViewCompat.TYPE_TOUCH);
+    }
+
+    @Override
+    public void onNestedScrollAccepted(View child, View target, int axes, int type) {
+        mNestedScrollingParentHelper.onNestedScrollAccepted(child, target, axes, type);
+        if (type == ViewCompat.TYPE_NON_TOUCH) {
+            // the target reports the exact fling delta beyond its bound, no need to follow it with a scroller
+            isNestedFlinging = true;
+            stopTrackingFling();
+        } else {
+            isNestedScrolling = true;
+            stopTrackingFling();
+            catchBound();
+            isAxisLocked = mOrientation != BOTH || mContentOffset != 0;
+        }
+        // both orientation bounces along one axis for the whole nested scroll, as for touches
+        if (!isAxisLocked && axes != (ViewCompat.SCROLL_AXIS_HORIZONTAL | ViewCompat.SCROLL_AXIS_VERTICAL)) {
+            setAxis((axes & ViewCompat.SCROLL_AXIS_HORIZONTAL) != 0 ? HORIZONTAL : VERTICAL);
+            isAxisLocked = true;
+        }
+    }
+
+    @Override
+    public void onStopNestedScroll(View target) {
+        onStopNestedScroll(target, ViewCompat.TYPE_TOUCH);
+    }
+
+    @Override
+    public void onStopNestedScroll(View target, int type) {
+        mNestedScrollingParentHelper.onStopNestedScroll(target, type);
+        if (type == ViewCompat.TYPE_NON_TOUCH) {
+            isNestedFlinging = false;
+            return;
+        }
+        isNestedScrolling = false;
+        flushDragOffset();
+        if (mContentOffset != 0) {
+            settle(0, true);
+        } else {
+            // a held content scrolled back by the target rests without settling
+            setBoundState(STATE_IDLE);
+        }
+    }
+
+    @Override
+    public void onNestedPreScroll(View target, int dx, int dy, int[] consumed) {
+        onNestedPreScroll(target, dx, dy, consumed, ViewCompat.TYPE_TOUCH);
+    }
+
+    @Override
+    public void onNestedPreScroll(View target, int dx, int dy, int[] consumed, int type) {
+        if (type != ViewCompat.TYPE_TOUCH || mDragOffset == 0) return;
+        int delta = mAxis == HORIZONTAL ? dx : dy;
+        // scroll back the bound first, then let the target scroll
+        if (mDragOffset > 0 && delta > 0 || mDragOffset < 0 && delta < 0) {
+            setBoundState(STATE_DRAGGING);
+            float lastOffset = mDragOffset;
+            float offset = mDragOffset - delta / DRAGGING_RESISTANCE;
+            mDragOffset = mDragOffset > 0 ? Math.max(offset, 0) : Math.min(offset, 0);
+            scheduleDragFrame(System.nanoTime());
+            // only the part which brought the bound back is consumed, the target scrolls the rest
+            consumed[mAxis == HORIZONTAL ? 0 : 1] = mDragOffset == offset ? delta :
+                    Math.round((lastOffset - mDragOffset) * DRAGGING_RESISTANCE);
+        }
+    }
+
+    @Override
+    public void onNestedScroll(View target, int dxConsumed, int dyConsumed, int dxUnconsumed, int dyUnconsumed) {
+        onNestedScroll(target, dxConsumed, dyConsumed, dxUnconsumed, dyUnconsumed, ViewCompat.TYPE_TOUCH);
+    }
+
+    @Override
+    public void onNestedScroll(View target, int dxConsumed, int dyConsumed, int dxUnconsumed, int dyUnconsumed,
+                               int type) {
+        if (!isAxisLocked && (dxUnconsumed != 0 || dyUnconsumed != 0)) {
+            // the first unconsumed scroll decides the axis of a target scrolling along both
+            setAxis(Math.abs(dxUnconsumed) >= Math.abs(dyUnconsumed) ? HORIZONTAL : VERTICAL);
+            isAxisLocked = true;
+        }
+        int unconsumed = mAxis == HORIZONTAL ? dxUnconsumed : dyUnconsumed;
+        if (unconsumed == 0) return;
+        if (type == ViewCompat.TYPE_NON_TOUCH) {
+            if (isNestedFlinging && mContentOffset == 0 && mBoundState == STATE_IDLE) {
+                absorbNestedFling(unconsumed + (mAxis == HORIZONTAL ? dxConsumed : dyConsumed));
+            }
+            return;
+        }
+        setBoundState(STATE_DRAGGING);
+        mDragOffset -= unconsumed / DRAGGING_RESISTANCE;
+        scheduleDragFrame(System.nanoTime());
+    }
+
+    /**
+     * bounce the content with the momentum of a fling the target could not finish, later deltas of the same fling
+     * are ignored while settling
+     *
+     * @param delta scroll of the target in the frame it reached its bound, positive when scrolling right or down
+     */
+    private void absorbNestedFling(int delta) {
+        // the content scrolling towards positive reveals the footer, its offset goes negative
+        float velocity = -delta * NANOS_PER_SECOND / mBoundMetrics.getFrameBudget() / DRAGGING_RESISTANCE;
+        mDirection = velocity > 0 ? DIRECTION_POSITIVE : DIRECTION_NEGATIVE;
+        animateOffsetTo(0, velocity);
+    }
+
+    @Override
+    public boolean onNestedPreFling(View target, float velocityX, float velocityY) {
+        // the bound is going to settle, do not let the target fling
+        return mContentOffset != 0;
+    }
+
+    @Override
+    public boolean onNestedFling(View target, float velocityX, float velocityY, boolean consumed) {
+        if (consumed && mContentOffset == 0) {
+            if (!isAxisLocked) {
+                setAxis(Math.abs(velocityX) >= Math.abs(velocityY) ? HORIZONTAL : VERTICAL);
+            }
+            trackFling(target, mAxis == HORIZONTAL ? velocityX : velocityY);
+        }
+        return false;
+    }
+
+    @Override
+    public int getNestedScrollAxes() {
+        return mNestedScrollingParentHelper.getNestedScrollAxes();
+    }
+
+    /**
+     * find the views under the finger which are able to scroll along the orientation, only once per gesture,
+     * they are shared by both axes in both orientation
+     */
+    private void resolveScrollTargets(float x, float y) {
+        clearScrollTargets();
+        if (mContent != null) {
+            findScrollTargets(mContent, x - mContent.getLeft() - mContent.getTranslationX(),
+                    y - mContent.getTop() - mContent.getTranslationY());
+        }
+    }
+
+    /**
+     * resolve the scroll targets under the point the gesture went down at, the tree has not scrolled since
+     */
+    private void resolvePendingScrollTargets() {
+        if (isScrollTargetsPending) {
+            resolveScrollTargets(mLastMotionX, mLastMotionY);
+        }
+    }
+
+    private void findScrollTargets(View view, float x, float y) {
+        for (int i = 0, size = mResolvers != null ? mResolvers.size() : 0; i < size; i++) {
+            ScrollabilityResolver resolver = mResolvers.get(i);
+            if (resolver.isScrollTarget(view)) {
+                addScrollTarget(view, resolver);
+                return;
+            }
+        }
         if (view instanceof ViewGroup) {
             ViewGroup viewGroup = (ViewGroup) view;
-            int scrollX = viewGroup.getScrollX();
-            int scrollY = viewGroup.getScrollY();
-            int count = viewGroup.getChildCount();
-            for (int i = count - 1; i >= 0; --i) {
+            float localX = x + viewGroup.getScrollX();
+            float localY = y + viewGroup.getScrollY();
+            for (int i = viewGroup.getChildCount() - 1; i >= 0; --i) {
                 View child = viewGroup.getChildAt(i);
-                if (x + scrollX >= child.getLeft() &&
-                        x + scrollX < child.getRight() &&
-                        y + scrollY >= child.getTop() &&
-                        y + scrollY < child.getBottom() &&
-                        canScroll(child, x + scrollX - child.getLeft(), y + scrollY - child.getTop(), direction)) {
-                    return true;
+                if (child.getVisibility() != View.VISIBLE) continue;
+                // children are hit where they are drawn, such as items of an animating list or a swiped row
+                float childX = localX - child.getLeft() - child.getTranslationX();
+                float childY = localY - child.getTop() - child.getTranslationY();
+                if (childX >= 0 && childX < child.getWidth() && childY >= 0 && childY < child.getHeight()) {
+                    findScrollTargets(child, childX, childY);
+                    break;
                 }
             }
         }
-        return mOrientation == HORIZONTAL ? view.canScrollHorizontally(direction) : view.canScrollVertically(direction);
+        boolean scrollable = mOrientation != VERTICAL && (view.canScrollHorizontally(DIRECTION_POSITIVE) ||
+                view.canScrollHorizontally(DIRECTION_NEGATIVE)) || mOrientation != HORIZONTAL &&
+                (view.canScrollVertically(DIRECTION_POSITIVE) || view.canScrollVertically(DIRECTION_NEGATIVE));
+        if (scrollable) {
+            addScrollTarget(view, null);
+        }
     }
 
-    private void startDragging(float x, float y) {
-        if (isBeingDragged) return;
-        if (mOrientation == HORIZONTAL) {
-            startDraggingHorizontal(x, y);
-        } else {
-            startDraggingVertical(x, y);
+    private void addScrollTarget(View view, ScrollabilityResolver resolver) {
+        if (mScrollTargets == null) {
+            mScrollTargets = new ArrayList<>();
+            mScrollTargetResolvers = new ArrayList<>();
         }
+        mScrollTargets.add(view);
+        mScrollTargetResolvers.add(resolver);
     }
 
-    private void startDraggingHorizontal(float x, float y) {
-        float diffX = x - mLastMotionX;
-        float diffY = y - mLastMotionY;
-        if (Math.abs(diffX) < Math.abs(diffY)) return;
-        if (diffX > mTouchSlop && !canScroll(mContent, x, y, DIRECTION_NEGATIVE) ||
-                diffX < -mTouchSlop && !canScroll(mContent, x, y, DIRECTION_POSITIVE)) {
-            mLastMotionX = mLastMotionX + (diffX > 0 ? mTouchSlop : -mTouchSlop);
-            mDirection = diffX > 0 ? DIRECTION_POSITIVE : DIRECTION_NEGATIVE;
-            isBeingDragged = true;
-            requestDisallowInterceptTouchEvent(true);
+    private void clearScrollTargets() {
+        isScrollTargetsPending = false;
+        if (mScrollTargets != null) {
+            mScrollTargets.clear();
+            mScrollTargetResolvers.clear();
         }
     }
 
-    private void startDraggingVertical(float x, float y) {
+    private boolean canScroll(int direction) {
+        for (int i = 0, size = mScrollTargets != null ? mScrollTargets.size() : 0; i < size; i++) {
+            View target = mScrollTargets.get(i);
+            ScrollabilityResolver resolver = mScrollTargetResolvers.get(i);
+            if (resolver != null ? resolver.canScroll(target, mAxis, direction) : canScrollView(target, direction)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean canScrollView(View view, int direction) {
+        return mAxis == HORIZONTAL ? view.canScrollHorizontally(direction) : view.canScrollVertically(direction);
+    }
+
+    private void startDragging(float x, float y) {
+        if (isBeingDragged) return;
+        resolvePendingScrollTargets();
         float diffX = x - mLastMotionX;
         float diffY = y - mLastMotionY;
-        if (Math.abs(diffX) > Math.abs(diffY)) return;
-        if (diffY > mTouchSlop && !canScroll(mContent, x, y, DIRECTION_NEGATIVE) ||
-                diffY < -mTouchSlop && !canScroll(mContent, x, y, DIRECTION_POSITIVE)) {
-            mLastMotionY = mLastMotionY + (diffY > 0 ? mTouchSlop : -mTouchSlop);
-            mDirection = diffY > 0 ? DIRECTION_POSITIVE : DIRECTION_NEGATIVE;
+        if (!isAxisLocked) {
+            // both orientation bounces along the axis the finger first moves along, for the whole gesture
+            if (Math.abs(diffX) <= mTouchSlop && Math.abs(diffY) <= mTouchSlop) return;
+            setAxis(Math.abs(diffX) >= Math.abs(diffY) ? HORIZONTAL : VERTICAL);
+            isAxisLocked = true;
+        }
+        float diff = mAxis == HORIZONTAL ? diffX : diffY;
+        float crossDiff = mAxis == HORIZONTAL ? diffY : diffX;
+        if (Math.abs(diff) < Math.abs(crossDiff)) return;
+        if (diff > mTouchSlop && !canScroll(DIRECTION_NEGATIVE) ||
+                diff < -mTouchSlop && !canScroll(DIRECTION_POSITIVE)) {
+            if (mAxis == HORIZONTAL) {
+                mLastMotionX = mLastMotionX + (diff > 0 ? mTouchSlop : -mTouchSlop);
+            } else {
+                mLastMotionY = mLastMotionY + (diff > 0 ? mTouchSlop : -mTouchSlop);
+            }
+            mDirection = getDragDirection(diff);
+            mDragOffset = mContentOffset;
+            resetPredictor();
             isBeingDragged = true;
+            setBoundState(STATE_DRAGGING);
             requestDisallowInterceptTouchEvent(true);
         }
     }
 
-    private void offsetChildren(int offset) {
-        if (offset == 0) return;
-        if (mOrientation == HORIZONTAL) {
-            offsetHorizontal(offset);
-        } else {
-            offsetVertical(offset);
+    /**
+     * samples of another finger or an earlier gesture do not continue the motion of the dragging finger
+     */
+    private void resetPredictor() {
+        if (mBoundPredictor != null) {
+            mBoundPredictor.reset();
         }
     }
 
-    private void offsetHorizontal(int offset) {
-        if (mHeader != null) {
-            int displayMode = ((LayoutParams) mHeader.getLayoutParams()).getDisplayMode();
-            if (displayMode == LayoutParams.DISPLAY_MODE_EDGE && mHeader.getLeft() <= 0) {
-                if (mHeader.getLeft() + offset <= 0) {
-                    mHeaderOffset += offset;
-                    ViewCompat.offsetLeftAndRight(mHeader, offset);
-                } else {
-                    mHeaderOffset = 0;
-                    ViewCompat.offsetLeftAndRight(mHeader, 0 - mHeader.getLeft());
+    /**
+     * the content held out of its bound can only be dragged on the side it is held at
+     */
+    private int getDragDirection(float diff) {
+        if (mContentOffset != 0) {
+            return mContentOffset > 0 ? DIRECTION_POSITIVE : DIRECTION_NEGATIVE;
+        }
+        return diff > 0 ? DIRECTION_POSITIVE : DIRECTION_NEGATIVE;
+    }
+
+    /**
+     * accumulate the resisted motion of a touch sample, sub-pixel motion is kept until it adds up
+     */
+    private void addDragSample(long eventTime, float x, float y) {
+        float value = mAxis == HORIZONTAL ? x : y;
+        if (mBoundPredictor != null) {
+            // event times are uptime milliseconds, the same clock frame times are taken in
+            mBoundPredictor.addSample(eventTime * 1000000, value);
+        }
+        float lastValue = mAxis == HORIZONTAL ? mLastMotionX : mLastMotionY;
+        float offset = mDragOffset + (value - lastValue) / DRAGGING_RESISTANCE;
+        if (mDirection == DIRECTION_POSITIVE && offset < 0 ||
+                mDirection == DIRECTION_NEGATIVE && offset > 0) {
+            offset = 0;
+        }
+        mDragOffset = offset;
+        mLastMotionX = x;
+        mLastMotionY = y;
+    }
+
+    /**
+     * apply the accumulated drag offset at most once per frame
+     *
+     * @param requestTimeNanos earliest time of the motion the frame shows
+     */
+    private void scheduleDragFrame(long requestTimeNanos) {
+        if (!isDragFramePosted) {
+            mBoundMetrics.onFrameRequested(requestTimeNanos);
+            isDragFramePosted = true;
+            mChoreographer.postFrameCallback(mDragFrameCallback);
+        }
+    }
+
+    /**
+     * apply the pending drag offset right now, before the bound starts settling
+     */
+    private void flushDragOffset() {
+        if (isDragFramePosted) {
+            isDragFramePosted = false;
+            mChoreographer.removeFrameCallback(mDragFrameCallback);
+            applyDragOffset(0);
+        }
+    }
+
+    /**
+     * @param frameTimeNanos time of the frame to apply the offset for, 0 to apply the real samples only
+     */
+    private void applyDragOffset(long frameTimeNanos) {
+        float offset = mDragOffset;
+        if (mBoundPredictor != null && isBeingDragged && frameTimeNanos != 0) {
+            // the frame is shown a frame interval later, where the finger is predicted to be by then
+            long frameBudget = mBoundMetrics.getFrameBudget();
+            float prediction = mBoundPredictor.predict(frameTimeNanos + frameBudget, frameBudget) / DRAGGING_RESISTANCE;
+            if (prediction != 0) {
+                offset += prediction;
+                // only real samples cross the bound
+                if (mDirection == DIRECTION_POSITIVE && offset < 0 || mDirection == DIRECTION_NEGATIVE && offset > 0) {
+                    offset = 0;
                 }
-            } else if (displayMode == LayoutParams.DISPLAY_MODE_SCROLL) {
-                mHeaderOffset += offset;
-                ViewCompat.offsetLeftAndRight(mHeader, offset);
+                // correct the prediction back to the real offset if no sample comes any more
+                scheduleDragFrame(frameTimeNanos);
             }
         }
+        offsetChildren((int) offset - mContentOffset);
+    }
+
+    /**
+     * move the content and the edges along the axis, package-private for the benchmark
+     */
+    void offsetChildren(int offset) {
+        if (offset == 0) return;
+        mContentOffset += offset;
+        if (mContentOffset > 0 && mHeaderLayout != 0) {
+            inflateHeader();
+        } else if (mContentOffset < 0 && mFooterLayout != 0) {
+            inflateFooter();
+        }
         if (mContent != null) {
-            mContentOffset += offset;
-            ViewCompat.offsetLeftAndRight(mContent, offset);
-        }
-        if (mFooter != null) {
-            int displayMode = ((LayoutParams) mFooter.getLayoutParams()).getDisplayMode();
-            if (displayMode == LayoutParams.DISPLAY_MODE_EDGE && mFooter.getRight() >= getMeasuredWidth()) {
-                if (mFooter.getRight() + offset >= getMeasuredWidth()) {
-                    mFooterOffset += offset;
-                    ViewCompat.offsetLeftAndRight(mFooter, offset);
-                } else {
-                    mFooterOffset = 0;
-                    ViewCompat.offsetLeftAndRight(mFooter, getMeasuredWidth() - mFooter.getRight());
-                }
-            } else if (displayMode == LayoutParams.DISPLAY_MODE_SCROLL) {
-                mFooterOffset += offset;
-                ViewCompat.offsetLeftAndRight(mFooter, offset);
+            moveChild(mContent, offset);
+        }
+        offsetEdge(mHeaderEdge);
+        offsetEdge(mFooterEdge);
+        if (mContentOffset != 0) {
+            mProgressEdge = mContentOffset > 0 ? EDGE_HEADER : EDGE_FOOTER;
+        }
+        if (mBoundState == STATE_DRAGGING) {
+            updateArmedEdge();
+        }
+        if (mOnBoundListener != null) {
+            int extent = getEdgeExtent(mProgressEdge);
+            int distance = Math.abs(mContentOffset);
+            mOnBoundListener.onBoundProgress(mProgressEdge, distance, extent > 0 ? (float) distance / extent : 0);
+        }
+    }
+
+    /**
+     * @return size of the edge view along the axis, a fifth of the layout if there is no edge view
+     */
+    private int getEdgeExtent(@Edge int edge) {
+        BoundEdge boundEdge = edge == EDGE_HEADER ? mHeaderEdge : mFooterEdge;
+        return boundEdge.view != null && boundEdge.extent > 0 ? boundEdge.extent :
+                (mAxis == HORIZONTAL ? getMeasuredWidth() : getMeasuredHeight()) / 5;
+    }
+
+    /**
+     * arm the edge being revealed once it passes its trigger fraction, the edge already held is not armed again
+     */
+    private void updateArmedEdge() {
+        int armedEdge = EDGE_NONE;
+        if (mContentOffset != 0 && mProgressEdge != mHoldEdge) {
+            BoundEdge edge = mProgressEdge == EDGE_HEADER ? mHeaderEdge : mFooterEdge;
+            if (Math.abs(mContentOffset) >= edge.triggerFraction * getEdgeExtent(mProgressEdge)) {
+                armedEdge = mProgressEdge;
             }
         }
+        setArmedEdge(armedEdge);
     }
 
-    private void offsetVertical(int offset) {
-        if (mHeader != null) {
-            int displayMode = ((LayoutParams) mHeader.getLayoutParams()).getDisplayMode();
-            if (displayMode == LayoutParams.DISPLAY_MODE_EDGE && mHeader.getTop() <= 0) {
-                if (mHeader.getTop() + offset <= 0) {
-                    mHeaderOffset += offset;
-                    ViewCompat.offsetTopAndBottom(mHeader, offset);
-                } else {
-                    mHeaderOffset = 0;
-                    ViewCompat.offsetTopAndBottom(mHeader, 0 - mHeader.getTop());
+    private void setArmedEdge(int armedEdge) {
+        if (mArmedEdge == armedEdge) return;
+        int lastArmedEdge = mArmedEdge;
+        mArmedEdge = armedEdge;
+        if (mOnTriggerListener == null) return;
+        if (lastArmedEdge != EDGE_NONE) {
+            mOnTriggerListener.onDisarmed(lastArmedEdge);
+        }
+        if (armedEdge != EDGE_NONE) {
+            mOnTriggerListener.onArmed(armedEdge);
+        }
+    }
+
+    private void setBoundState(@BoundState int state) {
+        if (mBoundState == state) return;
+        boolean wasMoving = mBoundState == STATE_DRAGGING || mBoundState == STATE_SETTLING;
+        boolean moving = state == STATE_DRAGGING || state == STATE_SETTLING;
+        mBoundState = state;
+        // moving between rest states, such as snapping without animation, is no gesture
+        if (!wasMoving && moving) {
+            mBoundMetrics.reset();
+            promoteLayers();
+        } else if (wasMoving && !moving) {
+            demoteLayers();
+        }
+        if (mOnBoundListener != null) {
+            mOnBoundListener.onBoundStateChanged(state);
+        }
+        if (wasMoving && !moving && mOnBoundMetricsListener != null) {
+            mOnBoundMetricsListener.onBoundMetrics(mBoundMetrics.getFrameCount(), mBoundMetrics.getJankFrameCount(),
+                    mBoundMetrics.getDroppedFrameCount(), mBoundMetrics.getSettleDuration());
+        }
+        if (wasMoving && !moving && mBoundQuality != null) {
+            int frameCount = mBoundMetrics.getFrameCount();
+            int jankFrameCount = mBoundMetrics.getJankFrameCount();
+            int tier = mBoundQuality.onGesture(frameCount, jankFrameCount);
+            if (tier != mQualityTier) {
+                setQualityTier(tier);
+                if (mOnQualityChangeListener != null) {
+                    mOnQualityChangeListener.onQualityChanged(tier, frameCount, jankFrameCount);
                 }
-            } else if (displayMode == LayoutParams.DISPLAY_MODE_SCROLL) {
-                mHeaderOffset += offset;
-                ViewCompat.offsetTopAndBottom(mHeader, offset);
             }
         }
-        if (mContent != null) {
-            mContentOffset += offset;
-            ViewCompat.offsetTopAndBottom(mContent, offset);
-        }
-        if (mFooter != null) {
-            int displayMode = ((LayoutParams) mFooter.getLayoutParams()).getDisplayMode();
-            if (displayMode == LayoutParams.DISPLAY_MODE_EDGE && mFooter.getBottom() >= getMeasuredHeight()) {
-                if (mFooter.getBottom() + offset >= getMeasuredHeight()) {
-                    mFooterOffset += offset;
-                    ViewCompat.offsetTopAndBottom(mFooter, offset);
-                } else {
-                    mFooterOffset = 0;
-                    ViewCompat.offsetTopAndBottom(mFooter, getMeasuredHeight() - mFooter.getBottom());
+    }
+
+    /**
+     * applied at rest only, each tier keeps the degradations of the tiers above it
+     */
+    private void setQualityTier(@QualityTier int tier) {
+        int lastTier = mQualityTier;
+        mQualityTier = tier;
+        if (lastTier < QUALITY_TIER_NO_TRANSFORMS && tier >= QUALITY_TIER_NO_TRANSFORMS) {
+            clearTransform(mLeftEdge);
+            clearTransform(mTopEdge);
+            clearTransform(mRightEdge);
+            clearTransform(mBottomEdge);
+        } else if (lastTier >= QUALITY_TIER_NO_TRANSFORMS && tier < QUALITY_TIER_NO_TRANSFORMS) {
+            transformEdge(mLeftEdge);
+            transformEdge(mTopEdge);
+            transformEdge(mRightEdge);
+            transformEdge(mBottomEdge);
+        }
+        setStiffness(mStiffness);
+    }
+
+    /**
+     * render the moving children into hardware layers while the content is out of rest,
+     * so offsetting them does not record their display lists again
+     */
+    private void promoteLayers() {
+        // edges are cached in layers regardless of the policy once the quality is degraded that far
+        if (mLayerPolicy == LAYER_POLICY_NONE && mQualityTier < QUALITY_TIER_CACHED_EDGES || !isHardwareAccelerated()) return;
+        promoteLayer(mLeftEdge);
+        promoteLayer(mTopEdge);
+        promoteLayer(mRightEdge);
+        promoteLayer(mBottomEdge);
+        if (mLayerPolicy == LAYER_POLICY_ALL) {
+            promoteLayer(mContent);
+        }
+    }
+
+    private void promoteLayer(BoundEdge edge) {
+        if (edge.promoteLayer) {
+            promoteLayer(edge.view);
+        }
+    }
+
+    private void promoteLayer(View view) {
+        // layers set by others are left alone
+        if (view == null || view.getLayerType() != View.LAYER_TYPE_NONE) return;
+        // a view invalidating itself would redraw its layer on every frame, more than drawing it directly
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP && view.isDirty()) return;
+        view.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+        if (mLayerViews == null) {
+            mLayerViews = new ArrayList<>(2);
+        }
+        mLayerViews.add(view);
+    }
+
+    private void demoteLayers() {
+        if (mLayerViews == null) return;
+        for (int i = 0, size = mLayerViews.size(); i < size; i++) {
+            mLayerViews.get(i).setLayerType(View.LAYER_TYPE_NONE, null);
+        }
+        mLayerViews.clear();
+    }
+
+    private void offsetEdge(BoundEdge edge) {
+        if (edge.view == null) return;
+        int offset = edge.resolve(mContentOffset) - edge.offset;
+        if (offset == 0) return;
+        edge.offset += offset;
+        moveChild(edge.view, offset);
+        transformEdge(edge);
+    }
+
+    /**
+     * apply the transform of the edge for its reveal, by view properties only
+     */
+    private void transformEdge(BoundEdge edge) {
+        EdgeTransform transform = edge.transform;
+        if (edge.view == null || transform == null || mQualityTier >= QUALITY_TIER_NO_TRANSFORMS) return;
+        View view = edge.view;
+        if (!edge.transformed) {
+            edge.transformed = true;
+            edge.restScaleX = view.getScaleX();
+            edge.restScaleY = view.getScaleY();
+            edge.restAlpha = view.getAlpha();
+        }
+        int reveal = edge.reveal();
+        float fraction = edge.extent == 0 ? 0 : (float) reveal / edge.extent;
+        // parallax holds the edge back towards where it is fully revealed
+        int transformOffset = Math.round(edge.sign * (1 - transform.getParallax()) * (edge.extent - reveal));
+        if (transformOffset != edge.transformOffset) {
+            if (edge.axis == HORIZONTAL) {
+                view.setTranslationX(view.getTranslationX() + transformOffset - edge.transformOffset);
+            } else {
+                view.setTranslationY(view.getTranslationY() + transformOffset - edge.transformOffset);
+            }
+            edge.transformOffset = transformOffset;
+        }
+        float scale = transform.getScale(fraction);
+        view.setScaleX(scale);
+        view.setScaleY(scale);
+        view.setAlpha(transform.getAlpha(fraction));
+    }
+
+    /**
+     * take the transform off the edge, the view gets back the scale and alpha it had before
+     */
+    private void clearTransform(BoundEdge edge) {
+        View view = edge.view;
+        if (view == null || !edge.transformed) return;
+        if (edge.axis == HORIZONTAL) {
+            view.setTranslationX(view.getTranslationX() - edge.transformOffset);
+        } else {
+            view.setTranslationY(view.getTranslationY() - edge.transformOffset);
+        }
+        edge.transformOffset = 0;
+        edge.transformed = false;
+        view.setScaleX(edge.restScaleX);
+        view.setScaleY(edge.restScaleY);
+        view.setAlpha(edge.restAlpha);
+    }
+
+    private void moveChild(View child, int offset) {
+        if (mOffsetMode == OFFSET_MODE_TRANSLATION) {
+            if (mAxis == HORIZONTAL) {
+                child.setTranslationX(child.getTranslationX() + offset);
+            } else {
+                child.setTranslationY(child.getTranslationY() + offset);
+            }
+        } else if (mAxis == HORIZONTAL) {
+            ViewCompat.offsetLeftAndRight(child, offset);
+        } else {
+            ViewCompat.offsetTopAndBottom(child, offset);
+        }
+    }
+
+    /**
+     * settle the released content, an armed edge is triggered, and the content is held at the edge extent
+     * if the edge holds on trigger, until {@link #completeHold()} is called
+     *
+     * @param velocity velocity of the content in px per second when released
+     * @param released false if the gesture was cancelled, an armed edge is disarmed instead of triggered
+     */
+    private void settle(float velocity, boolean released) {
+        if (!released) {
+            setArmedEdge(EDGE_NONE);
+        }
+        int target = 0;
+        if (mContentOffset != 0) {
+            int edge = mContentOffset > 0 ? EDGE_HEADER : EDGE_FOOTER;
+            BoundEdge boundEdge = edge == EDGE_HEADER ? mHeaderEdge : mFooterEdge;
+            if (mArmedEdge == edge) {
+                mArmedEdge = EDGE_NONE;
+                if (boundEdge.holdOnTrigger) {
+                    mHoldEdge = edge;
+                }
+                if (mOnTriggerListener != null) {
+                    mOnTriggerListener.onTriggered(edge);
                 }
-            } else if (displayMode == LayoutParams.DISPLAY_MODE_SCROLL) {
-                mFooterOffset += offset;
-                ViewCompat.offsetTopAndBottom(mFooter, offset);
+            }
+            if (mHoldEdge == edge) {
+                target = boundEdge.sign * getEdgeExtent(edge);
+            } else if (boundEdge.detents.length > 0) {
+                target = boundEdge.sign * findDetent(boundEdge, mContentOffset + velocity * DETENT_PROJECTION_SECONDS);
             }
         }
+        animateOffsetTo(target, velocity);
     }
 
-    private void setAnimationDuration() {
-        mTotalOffset = mContentOffset;
-        float pivotDistance = mOrientation == HORIZONTAL ?
-                mTotalOffset > 0 ?
-                        mHeader != null ? mHeader.getMeasuredWidth() : getMeasuredWidth() / 5 :
-                        mFooter != null ? mFooter.getMeasuredWidth() : getMeasuredWidth() / 5
-                :
-                mTotalOffset > 0 ?
-                        mHeader != null ? mHeader.getMeasuredHeight() : getMeasuredHeight() / 5 :
-                        mFooter != null ? mFooter.getMeasuredHeight() : getMeasuredHeight() / 5;
-        long duration = (long) (ANIMATION_DURATION * Math.abs(mTotalOffset) / pivotDistance);
-        mBoundAnimation.setDuration(duration);
+    /**
+     * @param offset content offset projected from the release offset and velocity
+     * @return the detent of the edge or closed nearest to the projected offset, in px revealed
+     */
+    private static int findDetent(BoundEdge edge, float offset) {
+        float reveal = edge.sign * offset;
+        int detent = 0;
+        for (int size : edge.detents) {
+            if (Math.abs(size - reveal) < Math.abs(detent - reveal)) {
+                detent = size;
+            }
+        }
+        return detent;
     }
 
-    private void animateOffsetToZero() {
-        setAnimationDuration();
-        clearAnimation();
-        startAnimation(mBoundAnimation);
+    private int getDetentOffset(@Edge int edge, int detent) {
+        BoundEdge boundEdge = edge == EDGE_HEADER ? mHeaderEdge : mFooterEdge;
+        if (detent < 0 || detent > boundEdge.detents.length) {
+            throw new IllegalArgumentException("edge " + edge + " has no detent " + detent);
+        }
+        return detent == 0 ? 0 : boundEdge.sign * boundEdge.detents[detent - 1];
+    }
+
+    /**
+     * follow the fling of the content with a scroller of the same deceleration, once the content hits its bound
+     * the remaining velocity is handed to the spring, so the momentum bounces instead of stopping dead
+     *
+     * @param target   the nested scrolling child which flings, null for the scroll targets under the finger
+     * @param velocity scroll velocity of the content in px per second, positive when scrolling right or down
+     */
+    private void trackFling(View target, float velocity) {
+        if (Math.abs(velocity) < mMinimumVelocity || mContentOffset != 0 || mBoundState != STATE_IDLE) return;
+        mFlingDirection = velocity > 0 ? DIRECTION_POSITIVE : DIRECTION_NEGATIVE;
+        mFlingTarget = target;
+        if (!canFlingTargetScroll()) {
+            mFlingTarget = null;
+            return;
+        }
+        if (mFlingScroller == null) {
+            mFlingScroller = new OverScroller(getContext());
+        }
+        mFlingScroller.fling(0, 0, 0, (int) velocity, 0, 0, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        if (mFlingFrameCallback == null) {
+            mFlingFrameCallback = new Choreographer.FrameCallback() {
+                @Override
+                public void doFrame(long frameTimeNanos) {
+                    isFlingTracked = false;
+                    trackFlingFrame();
+                }
+            };
+        }
+        if (!isFlingTracked) {
+            isFlingTracked = true;
+            mChoreographer.postFrameCallback(mFlingFrameCallback);
+        }
+    }
+
+    private void trackFlingFrame() {
+        if (!mFlingScroller.computeScrollOffset() || mContentOffset != 0 || mBoundState != STATE_IDLE) {
+            stopTrackingFling();
+            return;
+        }
+        if (canFlingTargetScroll()) {
+            isFlingTracked = true;
+            mChoreographer.postFrameCallback(mFlingFrameCallback);
+            return;
+        }
+        // the content scrolling towards positive reveals the footer, its offset goes negative
+        float velocity = -mFlingDirection * mFlingScroller.getCurrVelocity() / DRAGGING_RESISTANCE;
+        stopTrackingFling();
+        mDirection = velocity > 0 ? DIRECTION_POSITIVE : DIRECTION_NEGATIVE;
+        animateOffsetTo(0, velocity);
+    }
+
+    private boolean canFlingTargetScroll() {
+        return mFlingTarget != null ? canScrollView(mFlingTarget, mFlingDirection) : canScroll(mFlingDirection);
+    }
+
+    private void stopTrackingFling() {
+        if (isFlingTracked) {
+            isFlingTracked = false;
+            mChoreographer.removeFrameCallback(mFlingFrameCallback);
+        }
+        if (mFlingScroller != null) {
+            mFlingScroller.abortAnimation();
+        }
+        mFlingTarget = null;
+        if (mActivePointerId == MotionEvent.INVALID_POINTER_ID) {
+            clearScrollTargets();
+        }
+    }
+
+    private void animateOffsetTo(int offset, float velocity) {
+        setBoundState(STATE_SETTLING);
+        mBoundMetrics.onSettleStart();
+        mBoundMetrics.onFrameRequested(System.nanoTime());
+        mBoundSpring.start(mContentOffset, velocity, offset);
+    }
+
+    /**
+     * stop settling and catch the content where it is, the content held at rest is not caught,
+     * the content settling right through its rest offset is left at rest
+     *
+     * @return true if the content is settling out of its bound, the gesture should continue dragging
+     */
+    private boolean catchBound() {
+        boolean settling = mBoundSpring.isRunning();
+        mBoundSpring.cancel();
+        mDragOffset = mContentOffset;
+        if (!settling) return false;
+        if (mContentOffset == 0) {
+            setBoundState(STATE_IDLE);
+            return false;
+        }
+        mDirection = mContentOffset > 0 ? DIRECTION_POSITIVE : DIRECTION_NEGATIVE;
+        resetPredictor();
+        setBoundState(STATE_DRAGGING);
+        requestDisallowInterceptTouchEvent(true);
+        return true;
+    }
+
+    private void initOrResetVelocityTracker() {
+        if (mVelocityTracker == null) {
+            mVelocityTracker = VelocityTracker.obtain();
+        } else {
+            mVelocityTracker.clear();
+        }
+    }
+
+    private void initVelocityTrackerIfNotExists() {
+        if (mVelocityTracker == null) {
+            mVelocityTracker = VelocityTracker.obtain();
+        }
+    }
+
+    private void recycleVelocityTracker() {
+        if (mVelocityTracker != null) {
+            mVelocityTracker.recycle();
+            mVelocityTracker = null;
+        }
     }
 
     public void setHeaderView(View header) {
+        mHeaderLayout = 0;
         mHeader = header;
         addView(header, 0);
     }
 
     public void setFooterView(View footer) {
+        mFooterLayout = 0;
         mFooter = footer;
         addView(footer, getChildCount());
     }
 
+    /**
+     * declare the header by layout resource, it is inflated the first time the content is dragged to reveal it,
+     * or when the thread is idle after the first draw if edges prefetching is enabled
+     */
+    public void setHeaderLayout(@LayoutRes int layoutRes) {
+        if (mHeader == null) {
+            mHeaderLayout = layoutRes;
+            checkEdgeLayouts();
+        }
+    }
+
+    public void setFooterLayout(@LayoutRes int layoutRes) {
+        if (mFooter == null) {
+            mFooterLayout = layoutRes;
+            checkEdgeLayouts();
+        }
+    }
+
+    /**
+     * a header or footer by layout resource tells no edge of the four in both orientation
+     */
+    private void checkEdgeLayouts() {
+        if (mOrientation == BOTH && (mHeaderLayout != 0 || mFooterLayout != 0)) {
+            throw new IllegalStateException("BoundLayout can not inflate header or footer by layout in both orientation, " +
+                    "declare edges as children with boundEdge instead");
+        }
+    }
+
+    public void setPrefetchEdges(boolean prefetchEdges) {
+        isPrefetchEdges = prefetchEdges;
+    }
+
     public void setContentView(View content) {
         mContent = content;
         addView(content, mHeader == null ? 0 : 1);
     }
 
-    public void addView(View child, int index, LayoutParams params) {
-        if (getChildCount() > MAX_CHILDREN_COUNT) {
+    @Override
+    public void addView(View child, int index, ViewGroup.LayoutParams params) {
+        if (mOrientation == BOTH && getChildCount() >= MAX_CHILDREN_COUNT_BOTH) {
+            throw new IllegalStateException("BoundLayout can host at most five children in both orientation");
+        }
+        if (mOrientation != BOTH && getChildCount() >= MAX_CHILDREN_COUNT) {
             throw new IllegalStateException("HorizontalBoundView can host at most three children");
         }
         super.addView(child, index, params);
     }
 
+    /**
+     * register a resolver which tells the scrollability of specified views, such as RecyclerView, ViewPager, WebView,
+     * BoundLayout will not walk into the children of the views accepted by the resolver
+     */
+    public void addScrollabilityResolver(ScrollabilityResolver resolver) {
+        if (resolver == null) return;
+        if (mResolvers == null) {
+            mResolvers = new ArrayList<>(1);
+        }
+        if (!mResolvers.contains(resolver)) {
+            mResolvers.add(resolver);
+        }
+    }
+
+    public void removeScrollabilityResolver(ScrollabilityResolver resolver) {
+        if (mResolvers != null) {
+            mResolvers.remove(resolver);
+        }
+    }
+
+    /**
+     * {@link #OFFSET_MODE_LAYOUT} moves children by offsetting their bounds, {@link #OFFSET_MODE_TRANSLATION} moves
+     * them by translation only, children keep their layout positions and no gesture requests layout
+     */
+    public void setOffsetMode(@OffsetMode int offsetMode) {
+        if (mOffsetMode != offsetMode) {
+            reset();
+            mOffsetMode = offsetMode;
+            requestLayout();
+        }
+    }
+
+    /**
+     * {@link #LAYER_POLICY_EDGES} renders edges into hardware layers from the start of a bounce until it rests,
+     * {@link #LAYER_POLICY_ALL} renders the content too, edges opt out by {@link LayoutParams#setPromoteLayer(boolean)}
+     */
+    public void setLayerPolicy(@LayerPolicy int layerPolicy) {
+        mLayerPolicy = layerPolicy;
+        if (layerPolicy == LAYER_POLICY_NONE) {
+            demoteLayers();
+        }
+    }
+
+    /**
+     * drop the gesture and bounce in flight and put the children back at rest without a layout pass,
+     * such as from {@code onViewRecycled} of a RecyclerView adapter for recycled rows
+     */
+    public void reset() {
+        stopTrackingFling();
+        if (isDragFramePosted) {
+            isDragFramePosted = false;
+            mChoreographer.removeFrameCallback(mDragFrameCallback);
+        }
+        mBoundSpring.cancel();
+        isBeingDragged = false;
+        mActivePointerId = MotionEvent.INVALID_POINTER_ID;
+        clearScrollTargets();
+        recycleVelocityTracker();
+        mDirection = DIRECTION_NONE;
+        mHoldEdge = EDGE_NONE;
+        mPendingSnapEdge = EDGE_NONE;
+        // the dropped gesture triggers nothing, disarm before the edge goes back
+        setArmedEdge(EDGE_NONE);
+        offsetChildren(-mContentOffset);
+        mDragOffset = 0;
+        setBoundState(STATE_IDLE);
+    }
+
+    /**
+     * @param predictiveTouch true to offset the dragged content to where the finger is predicted to be when the frame
+     *                        is shown, extrapolated from recent touch samples and corrected by every real one
+     */
+    public void setPredictiveTouch(boolean predictiveTouch) {
+        if (predictiveTouch && mBoundPredictor == null) {
+            mBoundPredictor = new BoundPredictor();
+        } else if (!predictiveTouch) {
+            mBoundPredictor = null;
+        }
+    }
+
+    /**
+     * @param sharedDriver true to settle on the process-wide driver shared with other instances,
+     *                     which settles at most {@link #setMaxSharedSettles(int)} instances at a time
+     */
+    public void setSharedDriver(boolean sharedDriver) {
+        mBoundSpring.setDriver(sharedDriver ? BoundDriver.getInstance() : null);
+    }
+
+    /**
+     * @param count how many instances on the shared driver settle at the same time, the earliest settles
+     *              finish at once when more start, default 1
+     */
+    public static void setMaxSharedSettles(int count) {
+        BoundDriver.getInstance().setMaxRunning(count);
+    }
+
+    public void setOnBoundListener(OnBoundListener listener) {
+        mOnBoundListener = listener;
+    }
+
+    /**
+     * report frame statistics of every gesture, from the start of dragging until the content settles
+     */
+    public void setOnBoundMetricsListener(OnBoundMetricsListener listener) {
+        mOnBoundMetricsListener = listener;
+    }
+
+    @BoundState
+    public int getBoundState() {
+        return mBoundState;
+    }
+
+    public void setOnTriggerListener(OnTriggerListener listener) {
+        mOnTriggerListener = listener;
+    }
+
+    /**
+     * rest the content at a detent of an edge, it stays there across layouts until dragged or snapped again
+     *
+     * @param detent 0 for closed, otherwise the position of the detent among the edge detents in ascending order
+     */
+    public void snapTo(@Edge int edge, int detent, boolean animate) {
+        if (isBeingDragged || isNestedScrolling) return;
+        if (!ViewCompat.isLaidOut(this)) {
+            mPendingSnapEdge = edge;
+            mPendingSnapDetent = detent;
+            return;
+        }
+        int offset = getDetentOffset(edge, detent);
+        stopTrackingFling();
+        mHoldEdge = EDGE_NONE;
+        if (animate) {
+            if (offset != mContentOffset) {
+                mDirection = offset > mContentOffset ? DIRECTION_POSITIVE : DIRECTION_NEGATIVE;
+                animateOffsetTo(offset, 0);
+            }
+        } else {
+            mBoundSpring.cancel();
+            mDirection = DIRECTION_NONE;
+            offsetChildren(offset - mContentOffset);
+            mDragOffset = mContentOffset;
+            setBoundState(offset != 0 ? STATE_HOLDING : STATE_IDLE);
+        }
+    }
+
+    /**
+     * release the edge held after it was triggered, the content settles back to its bound
+     */
+    public void completeHold() {
+        if (mHoldEdge == EDGE_NONE) return;
+        mHoldEdge = EDGE_NONE;
+        if (!isBeingDragged && !isNestedScrolling && mContentOffset != 0) {
+            animateOffsetTo(0, 0);
+        }
+    }
+
+    public void setStiffness(float stiffness) {
+        mBoundSpring.setStiffness(mQualityTier >= QUALITY_TIER_SHORT_SETTLE ? stiffness * SHORT_SETTLE_STIFFNESS_SCALE : stiffness);
+        mStiffness = stiffness;
+    }
+
+    /**
+     * @param adaptiveQuality true to lower the quality tier by tier while bounces keep missing the frame budget,
+     *                        and raise it again once they meet it, false to stay at {@link #QUALITY_TIER_FULL}
+     */
+    public void setAdaptiveQuality(boolean adaptiveQuality) {
+        if (adaptiveQuality) {
+            if (mBoundQuality == null) {
+                mBoundQuality = new BoundQuality(QUALITY_TIER_SHORT_SETTLE);
+            }
+        } else {
+            mBoundQuality = null;
+            if (mQualityTier != QUALITY_TIER_FULL) {
+                setQualityTier(QUALITY_TIER_FULL);
+            }
+        }
+    }
+
+    public int getQualityTier() {
+        return mQualityTier;
+    }
+
+    public void setOnQualityChangeListener(OnQualityChangeListener listener) {
+        mOnQualityChangeListener = listener;
+    }
+
+    public void setDampingRatio(float dampingRatio) {
+        mBoundSpring.setDampingRatio(dampingRatio);
+    }
+
     public void setOrientation(@OrientationMode int orientation) {
         if (mOrientation != orientation) {
+            reset();
             mOrientation = orientation;
+            checkEdgeLayouts();
+            setAxis(orientation == BOTH ? HORIZONTAL : orientation);
+            updateEdges();
             requestLayout();
         }
     }
 
+    /**
+     * @return the axis being bounced, {@link #HORIZONTAL} or {@link #VERTICAL}, it is decided once per gesture
+     * in {@link #BOTH} orientation, headers are the left and top edges, footers the right and bottom edges
+     */
+    public int getBoundAxis() {
+        return mAxis;
+    }
+
+    public void setDisplayMode(View child, @LayoutParams.DisplayMode int displayMode) {
+        ((LayoutParams) child.getLayoutParams()).setDisplayMode(displayMode);
+        updateEdges();
+        requestLayout();
+    }
+
+    /**
+     * @param transform transform of the header or footer for its reveal, null to stop transforming it
+     */
+    public void setEdgeTransform(View child, EdgeTransform transform) {
+        ((LayoutParams) child.getLayoutParams()).setTransform(transform);
+        updateEdges();
+        requestLayout();
+    }
+
     @Override
     protected boolean checkLayoutParams(ViewGroup.LayoutParams p) {
         return p instanceof LayoutParams;
@@ -528,6 +1921,86 @@ public class BoundLayout extends FrameLayout {
         return new LayoutParams(p);
     }
 
+    public interface OnBoundListener {
+
+        /**
+         * @param state {@link #STATE_IDLE}, {@link #STATE_DRAGGING}, {@link #STATE_SETTLING} or {@link #STATE_HOLDING}
+         */
+        void onBoundStateChanged(int state);
+
+        /**
+         * called once per frame while the content is out of its bound
+         *
+         * @param edge     {@link #EDGE_HEADER} or {@link #EDGE_FOOTER}, the edge being revealed
+         * @param offset   distance of the content from its bound in px
+         * @param fraction offset relative to the extent of the edge view, may exceed 1
+         */
+        void onBoundProgress(int edge, int offset, float fraction);
+    }
+
+    public interface OnBoundMetricsListener {
+
+        /**
+         * @param frameCount        frames the bound was updated in during the gesture
+         * @param jankFrameCount    frames which came more than one and a half frame intervals after the previous one
+         * @param droppedFrameCount vsyncs missed before those late frames
+         * @param settleDuration    time from release until the content came to rest in ms, 0 if it did not settle
+         */
+        void onBoundMetrics(int frameCount, int jankFrameCount, int droppedFrameCount, long settleDuration);
+    }
+
+    public interface OnQualityChangeListener {
+
+        /**
+         * called whenever adaptive quality degrades or restores a tier, after the gesture which decided it came to rest
+         *
+         * @param tier           {@link #QUALITY_TIER_FULL}, {@link #QUALITY_TIER_NO_TRANSFORMS} without edge transforms,
+         *                       {@link #QUALITY_TIER_CACHED_EDGES} with edges cached in hardware layers too, or
+         *                       {@link #QUALITY_TIER_SHORT_SETTLE} with shorter settles too
+         * @param frameCount     frames of the gesture which decided the tier
+         * @param jankFrameCount frames of the gesture which missed the frame budget
+         */
+        void onQualityChanged(int tier, int frameCount, int jankFrameCount);
+    }
+
+    /**
+     * callbacks of the trigger of header and footer, such as pull to refresh and pull to load more
+     */
+    public interface OnTriggerListener {
+
+        /**
+         * the edge is revealed past its trigger fraction while dragging, it is a good time to start prefetching
+         *
+         * @param edge {@link #EDGE_HEADER} or {@link #EDGE_FOOTER}
+         */
+        void onArmed(int edge);
+
+        /**
+         * the edge is dragged back under its trigger fraction before released
+         */
+        void onDisarmed(int edge);
+
+        /**
+         * the content is released while the edge is armed, call {@link #completeHold()} when the work is done
+         * if the edge holds on trigger
+         */
+        void onTriggered(int edge);
+    }
+
+    public interface ScrollabilityResolver {
+
+        /**
+         * @return true if the resolver answers the scrollability of the view, its children will not be checked
+         */
+        boolean isScrollTarget(View view);
+
+        /**
+         * @param orientation {@link #HORIZONTAL} or {@link #VERTICAL}
+         * @param direction   negative to check scrolling left/up, positive to check scrolling right/down
+         */
+        boolean canScroll(View view, int orientation, int direction);
+    }
+
     public static class LayoutParams extends FrameLayout.LayoutParams {
 
         @IntDef({DISPLAY_MODE_FIXED, DISPLAY_MODE_SCROLL, DISPLAY_MODE_EDGE})
@@ -535,16 +2008,53 @@ public class BoundLayout extends FrameLayout {
         private @interface DisplayMode {
         }
 
+        @IntDef({BOUND_EDGE_NONE, BOUND_EDGE_LEFT, BOUND_EDGE_TOP, BOUND_EDGE_RIGHT, BOUND_EDGE_BOTTOM})
+        @Retention(RetentionPolicy.SOURCE)
+        private @interface EdgeSide {
+        }
+
         public static final int DISPLAY_MODE_FIXED = 0;
         public static final int DISPLAY_MODE_SCROLL = 1;
         public static final int DISPLAY_MODE_EDGE = 2;
+        public static final int BOUND_EDGE_NONE = -1;
+        public static final int BOUND_EDGE_LEFT = 0;
+        public static final int BOUND_EDGE_TOP = 1;
+        public static final int BOUND_EDGE_RIGHT = 2;
+        public static final int BOUND_EDGE_BOTTOM = 3;
+        static final float DEFAULT_TRIGGER_FRACTION = 1f;
+        private static final float[] EMPTY_FRACTIONS = new float[0];
+        private static final int[] EMPTY_SIZES = new int[0];
 
         int displayMode = DISPLAY_MODE_EDGE;
+        int boundEdge = BOUND_EDGE_NONE;
+        float triggerFraction = DEFAULT_TRIGGER_FRACTION;
+        boolean holdOnTrigger;
+        boolean promoteLayer = true;
+        EdgeTransform transform;
+        float[] detentFractions = EMPTY_FRACTIONS;
+        int[] detentSizes = EMPTY_SIZES;
 
         public LayoutParams(Context context, AttributeSet attrs) {
             super(context, attrs);
             TypedArray array = context.obtainStyledAttributes(attrs, R.styleable.BoundLayout);
             displayMode = array.getInt(R.styleable.BoundLayout_displayMode, DISPLAY_MODE_EDGE);
+            boundEdge = array.getInt(R.styleable.BoundLayout_boundEdge, BOUND_EDGE_NONE);
+            triggerFraction = array.getFloat(R.styleable.BoundLayout_triggerFraction, DEFAULT_TRIGGER_FRACTION);
+            holdOnTrigger = array.getBoolean(R.styleable.BoundLayout_holdOnTrigger, false);
+            promoteLayer = array.getBoolean(R.styleable.BoundLayout_promoteLayer, true);
+            if (array.hasValue(R.styleable.BoundLayout_parallax) || array.hasValue(R.styleable.BoundLayout_scaleFrom) ||
+                    array.hasValue(R.styleable.BoundLayout_scaleTo) || array.hasValue(R.styleable.BoundLayout_alphaFrom) ||
+                    array.hasValue(R.styleable.BoundLayout_alphaTo)) {
+                transform = new EdgeTransform.Builder()
+                        .parallax(array.getFloat(R.styleable.BoundLayout_parallax, 1f))
+                        .scale(array.getFloat(R.styleable.BoundLayout_scaleFrom, 1f), array.getFloat(R.styleable.BoundLayout_scaleTo, 1f))
+                        .alpha(array.getFloat(R.styleable.BoundLayout_alphaFrom, 1f), array.getFloat(R.styleable.BoundLayout_alphaTo, 1f))
+                        .build();
+            }
+            String detents = array.getString(R.styleable.BoundLayout_detents);
+            if (detents != null) {
+                parseDetents(detents, context.getResources().getDisplayMetrics().density);
+            }
             array.recycle();
         }
 
@@ -560,6 +2070,13 @@ public class BoundLayout extends FrameLayout {
         public LayoutParams(LayoutParams source) {
             super(source);
             displayMode = source.displayMode;
+            boundEdge = source.boundEdge;
+            triggerFraction = source.triggerFraction;
+            holdOnTrigger = source.holdOnTrigger;
+            promoteLayer = source.promoteLayer;
+            transform = source.transform;
+            detentFractions = source.detentFractions;
+            detentSizes = source.detentSizes;
         }
 
         public void setDisplayMode(@DisplayMode int displayMode) {
@@ -569,5 +2086,105 @@ public class BoundLayout extends FrameLayout {
         public int getDisplayMode() {
             return displayMode;
         }
+
+        /**
+         * @param boundEdge the edge the child is attached to in {@link #BOTH} orientation
+         */
+        public void setBoundEdge(@EdgeSide int boundEdge) {
+            this.boundEdge = boundEdge;
+        }
+
+        public int getBoundEdge() {
+            return boundEdge;
+        }
+
+        /**
+         * @param triggerFraction fraction of the edge extent to reveal before the edge is armed
+         */
+        public void setTriggerFraction(float triggerFraction) {
+            this.triggerFraction = triggerFraction;
+        }
+
+        public float getTriggerFraction() {
+            return triggerFraction;
+        }
+
+        /**
+         * @param holdOnTrigger hold the content at the edge extent after triggered, until {@link #completeHold()}
+         */
+        public void setHoldOnTrigger(boolean holdOnTrigger) {
+            this.holdOnTrigger = holdOnTrigger;
+        }
+
+        public boolean isHoldOnTrigger() {
+            return holdOnTrigger;
+        }
+
+        /**
+         * @param promoteLayer false to keep an animated edge out of the hardware layer while bouncing
+         */
+        public void setPromoteLayer(boolean promoteLayer) {
+            this.promoteLayer = promoteLayer;
+        }
+
+        public boolean isPromoteLayer() {
+            return promoteLayer;
+        }
+
+        /**
+         * @param transform transform of the edge for its reveal, null for none
+         */
+        public void setTransform(EdgeTransform transform) {
+            this.transform = transform;
+        }
+
+        public EdgeTransform getTransform() {
+            return transform;
+        }
+
+        /**
+         * @param fractions fractions of the edge extent the content may rest at besides closed, after released
+         */
+        public void setDetentFractions(float... fractions) {
+            detentFractions = fractions != null ? fractions : EMPTY_FRACTIONS;
+        }
+
+        public float[] getDetentFractions() {
+            return detentFractions;
+        }
+
+        /**
+         * @param sizes sizes in px of the edge revealed the content may rest at besides closed, after released
+         */
+        public void setDetentSizes(int... sizes) {
+            detentSizes = sizes != null ? sizes : EMPTY_SIZES;
+        }
+
+        public int[] getDetentSizes() {
+            return detentSizes;
+        }
+
+        /**
+         * @param detents comma separated, fractions of the edge extent such as 0.5, or sizes such as 48dp or 120px
+         */
+        private void parseDetents(String detents, float density) {
+            String[] items = detents.split(",");
+            float[] fractions = new float[items.length];
+            int[] sizes = new int[items.length];
+            int fractionCount = 0;
+            int sizeCount = 0;
+            for (String item : items) {
+                item = item.trim();
+                if (item.endsWith("dp")) {
+                    sizes[sizeCount++] = Math.round(Float.parseFloat(item.substring(0, item.length() - 2)) * density);
+                } else if (item.endsWith("px")) {
+                    sizes[sizeCount++] = Math.round(Float.parseFloat(item.substring(0, item.length() - 2)));
+                } else if (!item.isEmpty()) {
+                    fractions[fractionCount++] = Float.parseFloat(item);
+                }
+            }
+            detentFractions = Arrays.copyOf(fractions, fractionCount);
+            detentSizes = Arrays.copyOf(sizes, sizeCount);
+        }
     }
 }
@@ -0,0 +1,99 @@
+package com.androidev.boundlayout;
+
+/**
+ * Frame statistics of a single gesture, from the start of dragging until the content settles.
+ */
+final class BoundMetrics {
+
+    private static final long NANOS_PER_MILLI = 1000000;
+
+    private long mFrameBudget;
+    private int mFrameCount;
+    private int mJankFrameCount;
+    private int mDroppedFrameCount;
+    /**
+     * time the next frame is expected one frame interval after, 0 before the first frame is requested
+     */
+    private long mLastFrameTime;
+    private long mSettleStartTime;
+    private long mSettleDuration;
+
+    BoundMetrics(long frameBudget) {
+        mFrameBudget = frameBudget;
+    }
+
+    long getFrameBudget() {
+        return mFrameBudget;
+    }
+
+    /**
+     * the display of the layout changed its refresh rate, applies from the next frame
+     */
+    void setFrameBudget(long frameBudget) {
+        mFrameBudget = frameBudget;
+    }
+
+    void reset() {
+        mFrameCount = 0;
+        mJankFrameCount = 0;
+        mDroppedFrameCount = 0;
+        mLastFrameTime = 0;
+        mSettleStartTime = 0;
+        mSettleDuration = 0;
+    }
+
+    /**
+     * a frame is requested while none is pending, such as when settling starts or touch samples come after a pause,
+     * the next frame is then expected one frame interval after the time, unless a frame shortly before is still due
+     *
+     * @param timeNanos earliest time the frame is needed for, such as the time of the first touch sample it shows
+     */
+    void onFrameRequested(long timeNanos) {
+        if (mLastFrameTime == 0 || timeNanos - mLastFrameTime > mFrameBudget) {
+            mLastFrameTime = timeNanos;
+        }
+    }
+
+    /**
+     * a frame is late when its vsync time comes more than one and a half frame intervals after the last one,
+     * the vsyncs between them are dropped, frame times are compared since Choreographer moves the time of a frame
+     * which starts late to its latest vsync before running callbacks
+     */
+    void onFrame(long frameTimeNanos) {
+        mFrameCount++;
+        if (mLastFrameTime != 0) {
+            long interval = frameTimeNanos - mLastFrameTime;
+            if (interval > mFrameBudget * 3 / 2) {
+                mJankFrameCount++;
+                mDroppedFrameCount += (int) ((interval + mFrameBudget / 2) / mFrameBudget) - 1;
+            }
+        }
+        mLastFrameTime = frameTimeNanos;
+    }
+
+    void onSettleStart() {
+        mSettleStartTime = System.nanoTime();
+    }
+
+    void onSettleEnd() {
+        if (mSettleStartTime != 0) {
+            mSettleDuration = (System.nanoTime() - mSettleStartTime) / NANOS_PER_MILLI;
+        }
+    }
+
+    int getFrameCount() {
+        return mFrameCount;
+    }
+
+    int getJankFrameCount() {
+        return mJankFrameCount;
+    }
+
+    int getDroppedFrameCount() {
+        return mDroppedFrameCount;
+    }
+
+    long getSettleDuration() {
+        return mSettleDuration;
+    }
+}
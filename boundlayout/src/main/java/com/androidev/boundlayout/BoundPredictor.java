@@ -0,0 +1,81 @@
+package com.androidev.boundlayout;
+
+/**
+ * Extrapolates the finger position along the bounce axis from its recent samples with a least squares line,
+ * independent of android classes, samples and predictions are plain times and values.
+ */
+final class BoundPredictor {
+
+    private static final int MAX_SAMPLES = 8;
+    private static final int MIN_SAMPLES = 3;
+    /**
+     * samples older than this relative to the latest one are ignored, and a latest sample older than this
+     * relative to the predicted time means the finger rests
+     */
+    private static final long HISTORY_NANOS = 40000000;
+    private static final double NANOS_PER_MILLI = 1000000;
+
+    private final long[] mTimes = new long[MAX_SAMPLES];
+    private final float[] mValues = new float[MAX_SAMPLES];
+    private int mIndex;
+    private int mCount;
+
+    void reset() {
+        mIndex = 0;
+        mCount = 0;
+    }
+
+    /**
+     * @param timeNanos time of the sample, samples must come in time order
+     * @param value     position of the finger along the axis
+     */
+    void addSample(long timeNanos, float value) {
+        if (mCount > 0) {
+            int last = (mIndex + MAX_SAMPLES - 1) % MAX_SAMPLES;
+            if (timeNanos < mTimes[last]) return;
+            if (timeNanos == mTimes[last]) {
+                mValues[last] = value;
+                return;
+            }
+        }
+        mTimes[mIndex] = timeNanos;
+        mValues[mIndex] = value;
+        mIndex = (mIndex + 1) % MAX_SAMPLES;
+        mCount = Math.min(mCount + 1, MAX_SAMPLES);
+    }
+
+    /**
+     * @param timeNanos      the time to predict the position at
+     * @param maxHorizonNanos how far after the latest sample a prediction may reach
+     * @return predicted position at the time relative to the latest sample, 0 if there are too few recent samples
+     */
+    float predict(long timeNanos, long maxHorizonNanos) {
+        if (mCount < MIN_SAMPLES) return 0;
+        int last = (mIndex + MAX_SAMPLES - 1) % MAX_SAMPLES;
+        long lastTime = mTimes[last];
+        long horizon = timeNanos - lastTime;
+        if (horizon <= 0 || horizon > HISTORY_NANOS + maxHorizonNanos) return 0;
+        horizon = Math.min(horizon, maxHorizonNanos);
+        // times in milliseconds and values relative to the latest sample keep the sums well conditioned
+        double sumTime = 0, sumValue = 0, sumTimeTime = 0, sumTimeValue = 0;
+        int count = 0;
+        for (int i = 0; i < mCount; i++) {
+            int index = (last + MAX_SAMPLES - i) % MAX_SAMPLES;
+            long age = lastTime - mTimes[index];
+            if (age > HISTORY_NANOS) break;
+            double time = -age / NANOS_PER_MILLI;
+            double value = mValues[index] - mValues[last];
+            sumTime += time;
+            sumValue += value;
+            sumTimeTime += time * time;
+            sumTimeValue += time * value;
+            count++;
+        }
+        if (count < MIN_SAMPLES) return 0;
+        double denominator = count * sumTimeTime - sumTime * sumTime;
+        if (denominator == 0) return 0;
+        double slope = (count * sumTimeValue - sumTime * sumValue) / denominator;
+        double intercept = (sumValue - slope * sumTime) / count;
+        return (float) (intercept + slope * horizon / NANOS_PER_MILLI);
+    }
+}
@@ -0,0 +1,56 @@
+package com.androidev.boundlayout;
+
+/**
+ * Quality tier chosen from the frame statistics of past gestures, one tier lower after gestures keep missing
+ * the frame budget, one tier higher after they keep meeting it again.
+ */
+final class BoundQuality {
+
+    /**
+     * gestures with fewer frames tell too little about the device
+     */
+    private static final int MIN_FRAME_COUNT = 10;
+    private static final float DEGRADE_JANK_RATIO = 0.2f;
+    private static final float RESTORE_JANK_RATIO = 0.05f;
+    private static final int DEGRADE_GESTURE_COUNT = 2;
+    private static final int RESTORE_GESTURE_COUNT = 3;
+
+    /**
+     * tiers count up from 0 for the full quality
+     */
+    private final int mLowestTier;
+    private int mTier;
+    private int mSlowGestureCount;
+    private int mFastGestureCount;
+
+    BoundQuality(int lowestTier) {
+        mLowestTier = lowestTier;
+    }
+
+    /**
+     * @param frameCount     frames of the gesture
+     * @param jankFrameCount frames of the gesture which came late after the previous one
+     * @return the tier after the gesture
+     */
+    int onGesture(int frameCount, int jankFrameCount) {
+        if (frameCount < MIN_FRAME_COUNT) return mTier;
+        float jankRatio = (float) jankFrameCount / frameCount;
+        if (jankRatio > DEGRADE_JANK_RATIO) {
+            mFastGestureCount = 0;
+            if (++mSlowGestureCount >= DEGRADE_GESTURE_COUNT && mTier < mLowestTier) {
+                mSlowGestureCount = 0;
+                mTier++;
+            }
+        } else if (jankRatio < RESTORE_JANK_RATIO) {
+            mSlowGestureCount = 0;
+            if (++mFastGestureCount >= RESTORE_GESTURE_COUNT && mTier > 0) {
+                mFastGestureCount = 0;
+                mTier--;
+            }
+        } else {
+            mSlowGestureCount = 0;
+            mFastGestureCount = 0;
+        }
+        return mTier;
+    }
+}
@@ -0,0 +1,181 @@
+package com.androidev.boundlayout;
+
+import android.support.annotation.RestrictTo;
+import android.view.Choreographer;
+
+import static android.support.annotation.RestrictTo.Scope.LIBRARY_GROUP;
+
+/**
+ * Damped spring driven by {@link Choreographer} frames, the spring is solved analytically
+ * from the current value and velocity on every frame, so it can be interrupted and restarted at any time.
+ * <p>
+ * public for the other artifacts of the library only, such as the bounce of boundlayout-recyclerview
+ */
+@RestrictTo(LIBRARY_GROUP)
+public abstract class BoundSpring implements Choreographer.FrameCallback {
+
+    public static final float DEFAULT_STIFFNESS = 400f;
+    public static final float DEFAULT_DAMPING_RATIO = 1f;
+    private static final float VALUE_THRESHOLD = 0.5f;
+    private static final float VELOCITY_THRESHOLD = VALUE_THRESHOLD * 62.5f;
+    private static final float NANOS_PER_SECOND = 1000000000f;
+    private static final long DEFAULT_FRAME_INTERVAL = 16666667;
+
+    private float mStiffness = DEFAULT_STIFFNESS;
+    private float mDampingRatio = DEFAULT_DAMPING_RATIO;
+    private float mValue;
+    private float mVelocity;
+    private float mTarget;
+    private long mLastFrameTime;
+    private long mFrameInterval = DEFAULT_FRAME_INTERVAL;
+    private boolean isRunning;
+    private Choreographer mChoreographer;
+    private BoundDriver mDriver;
+
+    protected BoundSpring() {
+        mChoreographer = Choreographer.getInstance();
+    }
+
+    /**
+     * @param frameTimeNanos time of the frame the value is computed for, 0 if the spring was ended immediately
+     */
+    protected abstract void onSpringUpdate(float value, long frameTimeNanos);
+
+    protected abstract void onSpringEnd();
+
+    /**
+     * @param driver shared driver to step the spring, null to post frames by itself
+     */
+    void setDriver(BoundDriver driver) {
+        if (mDriver == driver) return;
+        cancel();
+        mDriver = driver;
+    }
+
+    /**
+     * @param frameInterval nanoseconds between two frames, the first frame of a start is stepped by it
+     */
+    void setFrameInterval(long frameInterval) {
+        mFrameInterval = frameInterval;
+    }
+
+    public void setStiffness(float stiffness) {
+        if (stiffness <= 0) {
+            throw new IllegalArgumentException("stiffness must be positive");
+        }
+        mStiffness = stiffness;
+    }
+
+    public void setDampingRatio(float dampingRatio) {
+        if (dampingRatio < 0) {
+            throw new IllegalArgumentException("damping ratio must not be negative");
+        }
+        mDampingRatio = dampingRatio;
+    }
+
+    /**
+     * @param value    start value in px
+     * @param velocity start velocity in px per second
+     * @param target   the value to rest at
+     */
+    public void start(float value, float velocity, float target) {
+        mValue = value;
+        mVelocity = velocity;
+        mTarget = target;
+        if (!isRunning) {
+            // frame times are vsync times earlier than now, the first frame is stepped by one frame interval
+            mLastFrameTime = 0;
+            isRunning = true;
+            if (mDriver != null) {
+                mDriver.add(this);
+            } else {
+                mChoreographer.postFrameCallback(this);
+            }
+        }
+    }
+
+    public void cancel() {
+        if (isRunning) {
+            isRunning = false;
+            if (mDriver != null) {
+                mDriver.remove(this);
+            } else {
+                mChoreographer.removeFrameCallback(this);
+            }
+        }
+    }
+
+    /**
+     * jump to the target and finish immediately
+     */
+    public void end() {
+        if (isRunning) {
+            cancel();
+            mValue = mTarget;
+            mVelocity = 0;
+            onSpringUpdate(mTarget, 0);
+            onSpringEnd();
+        }
+    }
+
+    public boolean isRunning() {
+        return isRunning;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!isRunning) return;
+        long frameInterval = mLastFrameTime == 0 ? mFrameInterval : Math.max(0, frameTimeNanos - mLastFrameTime);
+        float deltaTime = frameInterval / NANOS_PER_SECOND;
+        mLastFrameTime = frameTimeNanos;
+        step(deltaTime);
+        if (Math.abs(mValue - mTarget) < VALUE_THRESHOLD && Math.abs(mVelocity) < VELOCITY_THRESHOLD) {
+            cancel();
+            mValue = mTarget;
+            mVelocity = 0;
+            onSpringUpdate(mTarget, frameTimeNanos);
+            onSpringEnd();
+            return;
+        }
+        onSpringUpdate(mValue, frameTimeNanos);
+        // the shared driver steps its springs until they are removed
+        if (mDriver == null) {
+            mChoreographer.postFrameCallback(this);
+        }
+    }
+
+    private void step(float t) {
+        double x = mValue - mTarget;
+        double v = mVelocity;
+        double omega = Math.sqrt(mStiffness);
+        double zeta = mDampingRatio;
+        double position;
+        double velocity;
+        if (zeta > 1) {
+            double root = omega * Math.sqrt(zeta * zeta - 1);
+            double gammaPlus = -zeta * omega + root;
+            double gammaMinus = -zeta * omega - root;
+            double coeffB = (gammaMinus * x - v) / (gammaMinus - gammaPlus);
+            double coeffA = x - coeffB;
+            double expMinus = Math.exp(gammaMinus * t);
+            double expPlus = Math.exp(gammaPlus * t);
+            position = coeffA * expMinus + coeffB * expPlus;
+            velocity = coeffA * gammaMinus * expMinus + coeffB * gammaPlus * expPlus;
+        } else if (zeta == 1) {
+            double coeffB = v + omega * x;
+            double exp = Math.exp(-omega * t);
+            position = (x + coeffB * t) * exp;
+            velocity = (x + coeffB * t) * exp * -omega + coeffB * exp;
+        } else {
+            double dampedFrequency = omega * Math.sqrt(1 - zeta * zeta);
+            double sinCoeff = (zeta * omega * x + v) / dampedFrequency;
+            double exp = Math.exp(-zeta * omega * t);
+            double cos = Math.cos(dampedFrequency * t);
+            double sin = Math.sin(dampedFrequency * t);
+            position = exp * (x * cos + sinCoeff * sin);
+            velocity = position * -zeta * omega + exp * dampedFrequency * (sinCoeff * cos - x * sin);
+        }
+        mValue = (float) (position + mTarget);
+        mVelocity = (float) velocity;
+    }
+}
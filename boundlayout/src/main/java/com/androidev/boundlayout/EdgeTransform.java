@@ -0,0 +1,85 @@
+package com.androidev.boundlayout;
+
+/**
+ * Transform of a header or footer as a function of how much of it is revealed, applied by {@link BoundLayout}
+ * in the same frame the edge is offset, through view properties only, so the edge is never redrawn for it.
+ */
+public final class EdgeTransform {
+
+    private final float mParallax;
+    private final float mScaleFrom;
+    private final float mScaleTo;
+    private final float mAlphaFrom;
+    private final float mAlphaTo;
+
+    private EdgeTransform(Builder builder) {
+        mParallax = builder.parallax;
+        mScaleFrom = builder.scaleFrom;
+        mScaleTo = builder.scaleTo;
+        mAlphaFrom = builder.alphaFrom;
+        mAlphaTo = builder.alphaTo;
+    }
+
+    public float getParallax() {
+        return mParallax;
+    }
+
+    /**
+     * @param fraction revealed fraction of the edge, from 0 to 1
+     */
+    public float getScale(float fraction) {
+        return mScaleFrom + (mScaleTo - mScaleFrom) * fraction;
+    }
+
+    /**
+     * @param fraction revealed fraction of the edge, from 0 to 1
+     */
+    public float getAlpha(float fraction) {
+        return mAlphaFrom + (mAlphaTo - mAlphaFrom) * fraction;
+    }
+
+    public static final class Builder {
+
+        private float parallax = 1f;
+        private float scaleFrom = 1f;
+        private float scaleTo = 1f;
+        private float alphaFrom = 1f;
+        private float alphaTo = 1f;
+
+        /**
+         * @param parallax how fast the edge follows the content while revealing, 1 moves with the content,
+         *                 0 stays where it is fully revealed, default 1
+         */
+        public Builder parallax(float parallax) {
+            this.parallax = parallax;
+            return this;
+        }
+
+        /**
+         * @param from scale of the edge when hidden
+         * @param to   scale of the edge when fully revealed
+         */
+        public Builder scale(float from, float to) {
+            scaleFrom = from;
+            scaleTo = to;
+            return this;
+        }
+
+        /**
+         * @param from alpha of the edge when hidden
+         * @param to   alpha of the edge when fully revealed
+         */
+        public Builder alpha(float from, float to) {
+            if (from < 0 || from > 1 || to < 0 || to > 1) {
+                throw new IllegalArgumentException("alpha must be between 0 and 1");
+            }
+            alphaFrom = from;
+            alphaTo = to;
+            return this;
+        }
+
+        public EdgeTransform build() {
+            return new EdgeTransform(this);
+        }
+    }
+}
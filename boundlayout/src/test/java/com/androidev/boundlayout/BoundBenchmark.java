@@ -0,0 +1,290 @@
+package com.androidev.boundlayout;
+
+import android.app.Activity;
+import android.content.Context;
+import android.view.Gravity;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowMotionEvent;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Times the touch and offset paths of BoundLayout on Robolectric, one json object per line with the name, the
+ * parameters and the cpu ns per operation, so results of two versions can be compared.
+ * <p>
+ * skipped unless the system property {@code boundlayout.benchmark} names the output file, see build.gradle,
+ * {@code boundlayout.benchmark.depths} and {@code boundlayout.benchmark.fanOuts} configure the synthetic trees
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23,
+        shadows = {ShadowFrameChoreographer.class, ShadowSharedAccessibilityManager.class})
+public class BoundBenchmark {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int EDGE_SIZE = 200;
+    private static final int SIBLING_SIZE = 100;
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int MEASURE_ROUNDS = 10;
+    private static final int OPERATIONS = 10000;
+    private static final int[] DISPLAY_MODES = {
+            BoundLayout.LayoutParams.DISPLAY_MODE_FIXED,
+            BoundLayout.LayoutParams.DISPLAY_MODE_SCROLL,
+            BoundLayout.LayoutParams.DISPLAY_MODE_EDGE
+    };
+    private static final String[] DISPLAY_MODE_NAMES = {"fixed", "scroll", "edge"};
+    private static final String[] ORIENTATION_NAMES = {"horizontal", "vertical"};
+
+    private interface Operation {
+        void run(int i);
+    }
+
+    private Activity mActivity;
+    private PrintWriter mWriter;
+
+    @Before
+    public void setUp() {
+        ShadowFrameChoreographer.clear();
+        ShadowSharedAccessibilityManager.clear();
+        mActivity = Robolectric.setupActivity(Activity.class);
+    }
+
+    @Test
+    public void benchmark() throws IOException {
+        String output = System.getProperty("boundlayout.benchmark", "");
+        Assume.assumeFalse("set boundlayout.benchmark to the output file to run the benchmark", output.isEmpty());
+        int[] depths = intsProperty("boundlayout.benchmark.depths", "2,4,8");
+        int[] fanOuts = intsProperty("boundlayout.benchmark.fanOuts", "2,4,8");
+        mWriter = new PrintWriter(new FileWriter(output));
+        try {
+            for (int orientation = BoundLayout.HORIZONTAL; orientation <= BoundLayout.VERTICAL; orientation++) {
+                for (int depth : depths) {
+                    for (int fanOut : fanOuts) {
+                        benchmarkIntercept(orientation, depth, fanOut);
+                    }
+                }
+                benchmarkDragStep(orientation);
+                for (int i = 0; i < DISPLAY_MODES.length; i++) {
+                    benchmarkOffsetChildren(orientation, i);
+                }
+            }
+        } finally {
+            mWriter.close();
+        }
+    }
+
+    /**
+     * a gesture over a scrollable leaf of a synthetic tree, which never starts dragging: the down, the first move
+     * resolving the scroll targets and further moves asking them
+     */
+    private void benchmarkIntercept(int orientation, int depth, int fanOut) {
+        final BoundLayout layout = new BoundLayout(mActivity);
+        layout.setOrientation(orientation);
+        View content = createTree(mActivity, depth, fanOut);
+        content.setLayoutParams(new BoundLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
+                ViewGroup.LayoutParams.MATCH_PARENT));
+        layout.setContentView(content);
+        layoutExactly(layout);
+        // the leaf is the first child on every level, hit last as children are walked from the top of the z-order
+        float x = WIDTH / 2;
+        float y = HEIGHT / 2;
+        final MotionEvent[] gesture = new MotionEvent[6];
+        gesture[0] = MotionEvent.obtain(0, 0, MotionEvent.ACTION_DOWN, x, y, 0);
+        for (int i = 1; i < 5; i++) {
+            float distance = i * 24 * mActivity.getResources().getDisplayMetrics().density;
+            gesture[i] = MotionEvent.obtain(0, i * 8, MotionEvent.ACTION_MOVE,
+                    orientation == BoundLayout.HORIZONTAL ? x + distance : x,
+                    orientation == BoundLayout.VERTICAL ? y + distance : y, 0);
+        }
+        gesture[5] = MotionEvent.obtain(0, 40, MotionEvent.ACTION_UP, x, y, 0);
+        measure(String.format(Locale.US, "intercept_%s_depth%d_fanout%d", ORIENTATION_NAMES[orientation], depth, fanOut),
+                String.format(Locale.US, "\"orientation\":\"%s\",\"depth\":%d,\"fanOut\":%d",
+                        ORIENTATION_NAMES[orientation], depth, fanOut),
+                new Operation() {
+                    @Override
+                    public void run(int i) {
+                        for (MotionEvent event : gesture) {
+                            layout.onInterceptTouchEvent(event);
+                        }
+                    }
+                });
+        if (layout.getBoundState() != BoundLayout.STATE_IDLE) {
+            throw new AssertionError("the scrollable leaf was not found, the content was dragged");
+        }
+    }
+
+    /**
+     * a move of a dragging finger and the frame it schedules, the finger goes back and forth within the header
+     */
+    private void benchmarkDragStep(final int orientation) {
+        final BoundLayout layout = createBoundLayout(orientation, BoundLayout.LayoutParams.DISPLAY_MODE_EDGE);
+        final float start = 100;
+        final MotionEvent down = MotionEvent.obtain(0, 0, MotionEvent.ACTION_DOWN, start, start, 0);
+        layout.onInterceptTouchEvent(down);
+        layout.onTouchEvent(down);
+        final MotionEvent move = MotionEvent.obtain(0, 0, MotionEvent.ACTION_MOVE, start, start, 0);
+        final ShadowMotionEvent shadowMove = shadowOf(move);
+        drag(layout, move, shadowMove, orientation, start + 100);
+        if (layout.getBoundState() != BoundLayout.STATE_DRAGGING) {
+            throw new AssertionError("the content is not dragged");
+        }
+        measure("drag_step_" + ORIENTATION_NAMES[orientation],
+                "\"orientation\":\"" + ORIENTATION_NAMES[orientation] + "\"",
+                new Operation() {
+                    @Override
+                    public void run(int i) {
+                        // 50 px to 250 px and back in 4 px steps
+                        int step = i % 100;
+                        drag(layout, move, shadowMove, orientation, start + 50 + 4 * (step < 50 ? step : 100 - step));
+                    }
+                });
+        layout.reset();
+    }
+
+    private static void drag(BoundLayout layout, MotionEvent move, ShadowMotionEvent shadowMove, int orientation,
+                             float position) {
+        shadowMove.setLocation(orientation == BoundLayout.HORIZONTAL ? position : 100,
+                orientation == BoundLayout.VERTICAL ? position : 100);
+        layout.onTouchEvent(move);
+        ShadowFrameChoreographer.doFrame();
+    }
+
+    /**
+     * the content goes from the header to the footer and back in 10 px steps
+     */
+    private void benchmarkOffsetChildren(int orientation, int displayMode) {
+        final BoundLayout layout = createBoundLayout(orientation, DISPLAY_MODES[displayMode]);
+        measure(String.format(Locale.US, "offset_children_%s_%s", ORIENTATION_NAMES[orientation],
+                DISPLAY_MODE_NAMES[displayMode]),
+                String.format(Locale.US, "\"orientation\":\"%s\",\"displayMode\":\"%s\"",
+                        ORIENTATION_NAMES[orientation], DISPLAY_MODE_NAMES[displayMode]),
+                new Operation() {
+                    @Override
+                    public void run(int i) {
+                        // 0 to 150, back to -150 and to 0 again
+                        int step = i % 60;
+                        layout.offsetChildren(step < 15 || step >= 45 ? 10 : -10);
+                    }
+                });
+        layout.reset();
+    }
+
+    private BoundLayout createBoundLayout(int orientation, int displayMode) {
+        BoundLayout layout = new BoundLayout(mActivity);
+        layout.setOrientation(orientation);
+        View header = new View(mActivity);
+        View footer = new View(mActivity);
+        layout.setHeaderView(header);
+        layout.setContentView(new View(mActivity));
+        layout.setFooterView(footer);
+        int width = orientation == BoundLayout.HORIZONTAL ? EDGE_SIZE : ViewGroup.LayoutParams.MATCH_PARENT;
+        int height = orientation == BoundLayout.VERTICAL ? EDGE_SIZE : ViewGroup.LayoutParams.MATCH_PARENT;
+        header.setLayoutParams(new BoundLayout.LayoutParams(width, height));
+        footer.setLayoutParams(new BoundLayout.LayoutParams(width, height));
+        layout.setDisplayMode(header, displayMode);
+        layout.setDisplayMode(footer, displayMode);
+        layoutExactly(layout);
+        return layout;
+    }
+
+    /**
+     * nested frames of the fan-out, the first child of each frame fills it and goes on to the next level, the other
+     * children are hit-tested and missed, the leaf scrolls both ways along both axes
+     */
+    private static View createTree(Context context, int depth, int fanOut) {
+        if (depth == 0) {
+            return new ScrollableView(context);
+        }
+        FrameLayout frame = new FrameLayout(context);
+        frame.addView(createTree(context, depth - 1, fanOut), new FrameLayout.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        for (int i = 1; i < fanOut; i++) {
+            frame.addView(new View(context), new FrameLayout.LayoutParams(SIBLING_SIZE, SIBLING_SIZE,
+                    Gravity.BOTTOM | Gravity.END));
+        }
+        return frame;
+    }
+
+    private static void layoutExactly(BoundLayout layout) {
+        layout.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        layout.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    private void measure(String name, String params, Operation operation) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            run(operation);
+        }
+        long best = Long.MAX_VALUE;
+        long total = 0;
+        for (int round = 0; round < MEASURE_ROUNDS; round++) {
+            long duration = run(operation);
+            best = Math.min(best, duration);
+            total += duration;
+        }
+        mWriter.println(String.format(Locale.US,
+                "{\"name\":\"%s\",\"params\":{%s},\"mean_ns\":%.1f,\"best_ns\":%.1f,\"operations\":%d,\"rounds\":%d}",
+                name, params, (double) total / MEASURE_ROUNDS / OPERATIONS, (double) best / OPERATIONS,
+                OPERATIONS, MEASURE_ROUNDS));
+        mWriter.flush();
+    }
+
+    /**
+     * @return cpu time of the thread in ns, System.nanoTime and currentTimeMillis tell the fake clock of Robolectric
+     */
+    private static long run(Operation operation) {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        long start = threadMXBean.getCurrentThreadCpuTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            operation.run(i);
+        }
+        return threadMXBean.getCurrentThreadCpuTime() - start;
+    }
+
+    private static int[] intsProperty(String key, String defaultValue) {
+        String[] values = System.getProperty(key, defaultValue).split(",");
+        int[] ints = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            ints[i] = Integer.parseInt(values[i].trim());
+        }
+        return ints;
+    }
+
+    /**
+     * a canvas which always scrolls, like a map or a drawing surface
+     */
+    private static class ScrollableView extends View {
+
+        ScrollableView(Context context) {
+            super(context);
+        }
+
+        @Override
+        public boolean canScrollHorizontally(int direction) {
+            return true;
+        }
+
+        @Override
+        public boolean canScrollVertically(int direction) {
+            return true;
+        }
+    }
+}
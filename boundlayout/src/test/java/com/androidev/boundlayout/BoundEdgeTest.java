@@ -0,0 +1,73 @@
+package com.androidev.boundlayout;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class BoundEdgeTest {
+
+    private static BoundEdge edge(int sign, int displayMode, int extent) {
+        BoundEdge edge = new BoundEdge(sign, BoundLayout.VERTICAL);
+        edge.displayMode = displayMode;
+        edge.extent = extent;
+        edge.updateBounds();
+        return edge;
+    }
+
+    @Test
+    public void headerInEdgeModeSticksOnceRevealed() {
+        BoundEdge edge = edge(1, BoundLayout.LayoutParams.DISPLAY_MODE_EDGE, 100);
+        assertEquals(0, edge.restOffset);
+        assertEquals(-50, edge.resolve(-50));
+        assertEquals(60, edge.resolve(60));
+        assertEquals(100, edge.resolve(180));
+    }
+
+    @Test
+    public void footerInEdgeModeSticksOnceRevealed() {
+        BoundEdge edge = edge(-1, BoundLayout.LayoutParams.DISPLAY_MODE_EDGE, 100);
+        assertEquals(50, edge.resolve(50));
+        assertEquals(-60, edge.resolve(-60));
+        assertEquals(-100, edge.resolve(-180));
+    }
+
+    @Test
+    public void scrollModeFollowsContent() {
+        BoundEdge edge = edge(1, BoundLayout.LayoutParams.DISPLAY_MODE_SCROLL, 100);
+        assertEquals(0, edge.restOffset);
+        assertEquals(180, edge.resolve(180));
+        assertEquals(-180, edge.resolve(-180));
+    }
+
+    @Test
+    public void fixedModeStaysRevealed() {
+        BoundEdge header = edge(1, BoundLayout.LayoutParams.DISPLAY_MODE_FIXED, 100);
+        assertEquals(100, header.restOffset);
+        assertEquals(100, header.resolve(0));
+        assertEquals(100, header.resolve(180));
+        assertEquals(100, header.reveal());
+        BoundEdge footer = edge(-1, BoundLayout.LayoutParams.DISPLAY_MODE_FIXED, 100);
+        assertEquals(-100, footer.resolve(-180));
+    }
+
+    @Test
+    public void revealIsClampedToExtent() {
+        BoundEdge edge = edge(-1, BoundLayout.LayoutParams.DISPLAY_MODE_SCROLL, 100);
+        edge.offset = 30;
+        assertEquals(0, edge.reveal());
+        edge.offset = -30;
+        assertEquals(30, edge.reveal());
+        edge.offset = -180;
+        assertEquals(100, edge.reveal());
+    }
+
+    @Test
+    public void detentsAreSortedWithoutClosedAndDuplicates() {
+        BoundEdge edge = edge(1, BoundLayout.LayoutParams.DISPLAY_MODE_EDGE, 200);
+        edge.updateDetents(new float[]{1f, 0.5f}, new int[]{100, 0, 40});
+        assertArrayEquals(new int[]{40, 100, 200}, edge.detents);
+        edge.updateDetents(new float[0], new int[0]);
+        assertArrayEquals(new int[0], edge.detents);
+    }
+}
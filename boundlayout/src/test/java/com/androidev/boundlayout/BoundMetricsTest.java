@@ -0,0 +1,71 @@
+package com.androidev.boundlayout;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class BoundMetricsTest {
+
+    private static final long FRAME_BUDGET = 16666667;
+    private static final long START = 1000000000L;
+
+    private BoundMetrics mMetrics;
+
+    @Before
+    public void setUp() {
+        mMetrics = new BoundMetrics(FRAME_BUDGET);
+    }
+
+    @Test
+    public void countsNoJankForConsecutiveFrames() {
+        mMetrics.onFrameRequested(START);
+        for (int i = 1; i <= 10; i++) {
+            mMetrics.onFrame(START + i * FRAME_BUDGET);
+        }
+        assertEquals(10, mMetrics.getFrameCount());
+        assertEquals(0, mMetrics.getJankFrameCount());
+        assertEquals(0, mMetrics.getDroppedFrameCount());
+    }
+
+    @Test
+    public void countsDroppedVsyncsOfLateFrame() {
+        mMetrics.onFrameRequested(START);
+        mMetrics.onFrame(START + FRAME_BUDGET);
+        mMetrics.onFrame(START + 4 * FRAME_BUDGET);
+        mMetrics.onFrame(START + 5 * FRAME_BUDGET);
+        assertEquals(3, mMetrics.getFrameCount());
+        assertEquals(1, mMetrics.getJankFrameCount());
+        assertEquals(2, mMetrics.getDroppedFrameCount());
+    }
+
+    @Test
+    public void lateFirstFrameIsJank() {
+        mMetrics.onFrameRequested(START);
+        mMetrics.onFrame(START + 3 * FRAME_BUDGET);
+        assertEquals(1, mMetrics.getJankFrameCount());
+        assertEquals(2, mMetrics.getDroppedFrameCount());
+    }
+
+    @Test
+    public void pauseBetweenRequestsIsNoJank() {
+        mMetrics.onFrameRequested(START);
+        mMetrics.onFrame(START + FRAME_BUDGET);
+        // the finger rests for a while, then moves again
+        mMetrics.onFrameRequested(START + 20 * FRAME_BUDGET);
+        mMetrics.onFrame(START + 21 * FRAME_BUDGET);
+        assertEquals(0, mMetrics.getJankFrameCount());
+    }
+
+    @Test
+    public void resetClearsCounts() {
+        mMetrics.onFrameRequested(START);
+        mMetrics.onFrame(START + 4 * FRAME_BUDGET);
+        mMetrics.reset();
+        assertEquals(0, mMetrics.getFrameCount());
+        assertEquals(0, mMetrics.getJankFrameCount());
+        assertEquals(0, mMetrics.getDroppedFrameCount());
+        mMetrics.onFrame(START + 40 * FRAME_BUDGET);
+        assertEquals(0, mMetrics.getJankFrameCount());
+    }
+}
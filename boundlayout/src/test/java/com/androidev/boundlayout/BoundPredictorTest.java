@@ -0,0 +1,99 @@
+package com.androidev.boundlayout;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BoundPredictorTest {
+
+    private static final long NANOS_PER_MILLI = 1000000;
+    private static final long FRAME_BUDGET = 16666667;
+
+    /**
+     * a drag along one axis at a 120 Hz touch rate, times in ms with their sampling jitter and positions in px,
+     * the finger slows down, turns around at about 125 ms and speeds up the other way
+     */
+    private static final long[] TRACE_TIMES = {
+            0, 9, 17, 24, 33, 41, 50, 58, 67, 75, 84, 92, 100, 108, 116,
+            125, 133, 141, 150, 158, 167, 175, 183, 192, 200, 209, 216, 224, 233, 242
+    };
+    private static final float[] TRACE_VALUES = {
+            399.7f, 411.8f, 422.1f, 430.4f, 440.2f, 447.8f, 456.5f, 462.5f, 469.5f, 474.0f, 478.4f, 482.1f, 484.7f,
+            487.3f, 488.5f, 489.0f, 488.6f, 487.8f, 486.2f, 484.0f, 480.3f, 476.7f, 472.1f, 466.3f, 459.8f, 452.0f,
+            446.0f, 437.6f, 427.7f, 416.8f
+    };
+
+    private BoundPredictor mPredictor;
+
+    @Before
+    public void setUp() {
+        mPredictor = new BoundPredictor();
+    }
+
+    @Test
+    public void predictsNothingWithTooFewSamples() {
+        mPredictor.addSample(0, 0);
+        mPredictor.addSample(8 * NANOS_PER_MILLI, 10);
+        assertEquals(0, mPredictor.predict(16 * NANOS_PER_MILLI, FRAME_BUDGET), 0);
+    }
+
+    @Test
+    public void extrapolatesSteadyMotion() {
+        for (int i = 0; i < 5; i++) {
+            mPredictor.addSample(i * 8 * NANOS_PER_MILLI, i * 8);
+        }
+        // 1 px per ms, predicted 8 ms after the latest sample
+        assertEquals(8, mPredictor.predict(40 * NANOS_PER_MILLI, FRAME_BUDGET), 0.001f);
+    }
+
+    @Test
+    public void limitsPredictionToHorizon() {
+        for (int i = 0; i < 5; i++) {
+            mPredictor.addSample(i * 8 * NANOS_PER_MILLI, i * 8);
+        }
+        assertEquals(4, mPredictor.predict(50 * NANOS_PER_MILLI, 4 * NANOS_PER_MILLI), 0.001f);
+    }
+
+    @Test
+    public void predictsNothingForRestingFinger() {
+        for (int i = 0; i < 5; i++) {
+            mPredictor.addSample(i * 8 * NANOS_PER_MILLI, i * 8);
+        }
+        assertEquals(0, mPredictor.predict(200 * NANOS_PER_MILLI, FRAME_BUDGET), 0);
+    }
+
+    @Test
+    public void ignoresSamplesOutOfOrder() {
+        for (int i = 0; i < 5; i++) {
+            mPredictor.addSample(i * 8 * NANOS_PER_MILLI, i * 8);
+        }
+        mPredictor.addSample(20 * NANOS_PER_MILLI, 100);
+        assertEquals(8, mPredictor.predict(40 * NANOS_PER_MILLI, FRAME_BUDGET), 0.001f);
+    }
+
+    @Test
+    public void forgetsSamplesOnReset() {
+        for (int i = 0; i < 5; i++) {
+            mPredictor.addSample(i * 8 * NANOS_PER_MILLI, i * 8);
+        }
+        mPredictor.reset();
+        mPredictor.addSample(40 * NANOS_PER_MILLI, 500);
+        assertEquals(0, mPredictor.predict(48 * NANOS_PER_MILLI, FRAME_BUDGET), 0);
+    }
+
+    @Test
+    public void predictsTraceCloserThanLatestSample() {
+        float predictedError = 0;
+        float latestError = 0;
+        for (int i = 0; i < TRACE_TIMES.length - 1; i++) {
+            mPredictor.addSample(TRACE_TIMES[i] * NANOS_PER_MILLI, TRACE_VALUES[i]);
+            float prediction = mPredictor.predict(TRACE_TIMES[i + 1] * NANOS_PER_MILLI, FRAME_BUDGET);
+            float motion = TRACE_VALUES[i + 1] - TRACE_VALUES[i];
+            predictedError += Math.abs(motion - prediction);
+            latestError += Math.abs(motion);
+        }
+        assertTrue("predicted " + predictedError + " latest " + latestError, predictedError < latestError);
+    }
+}
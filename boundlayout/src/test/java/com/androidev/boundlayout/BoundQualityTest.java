@@ -0,0 +1,57 @@
+package com.androidev.boundlayout;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class BoundQualityTest {
+
+    private static final int LOWEST_TIER = 3;
+
+    private BoundQuality mQuality;
+
+    @Before
+    public void setUp() {
+        mQuality = new BoundQuality(LOWEST_TIER);
+    }
+
+    @Test
+    public void degradesAfterSlowGestures() {
+        assertEquals(0, mQuality.onGesture(60, 30));
+        assertEquals(1, mQuality.onGesture(60, 30));
+    }
+
+    @Test
+    public void ignoresShortGestures() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, mQuality.onGesture(5, 5));
+        }
+    }
+
+    @Test
+    public void mixedGesturesKeepTier() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, mQuality.onGesture(60, 30));
+            assertEquals(0, mQuality.onGesture(60, 6));
+        }
+    }
+
+    @Test
+    public void stopsAtLowestTier() {
+        for (int i = 0; i < 20; i++) {
+            mQuality.onGesture(60, 30);
+        }
+        assertEquals(LOWEST_TIER, mQuality.onGesture(60, 30));
+    }
+
+    @Test
+    public void restoresAfterFastGestures() {
+        mQuality.onGesture(60, 30);
+        mQuality.onGesture(60, 30);
+        assertEquals(1, mQuality.onGesture(60, 0));
+        assertEquals(1, mQuality.onGesture(60, 0));
+        assertEquals(0, mQuality.onGesture(60, 0));
+        assertEquals(0, mQuality.onGesture(60, 0));
+    }
+}
@@ -0,0 +1,446 @@
+package com.androidev.boundlayout;
+
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.VelocityTracker;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowMotionEvent;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Replays gesture traces through an attached BoundLayout on a clock advanced frame by frame, and counts what each
+ * gesture costs from the down until the content settled: layout requests, measure and layout passes, invalidations
+ * and heap allocations of touch events and frames.
+ * <p>
+ * each trace is replayed once on another layout first, so class loading and call site linking are not counted,
+ * then a few times more keeping the replay which allocated least, compiled code replaced during a replay allocates
+ * once, while an allocation of the layout shows in every replay
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23,
+        shadows = {ShadowFrameChoreographer.class, ShadowSharedAccessibilityManager.class})
+public class BoundReplayTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int EDGE_SIZE = 400;
+    private static final int MAX_SETTLE_FRAMES = 300;
+    private static final int MEASURED_REPLAYS = 3;
+    private static final int[] OFFSET_MODES = {BoundLayout.OFFSET_MODE_LAYOUT, BoundLayout.OFFSET_MODE_TRANSLATION};
+
+    private Activity mActivity;
+    private Canvas mCanvas;
+    private VelocityTracker mTracker;
+    private long mAllocationOverhead;
+
+    @Before
+    public void setUp() {
+        ShadowFrameChoreographer.clear();
+        ShadowSharedAccessibilityManager.clear();
+        mActivity = Robolectric.setupActivity(Activity.class);
+        mCanvas = new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+        mTracker = VelocityTracker.obtain();
+        allocatedBytes();
+        long start = allocatedBytes();
+        mAllocationOverhead = allocatedBytes() - start;
+    }
+
+    @Test
+    public void slowDragCostsNoLayoutNorAllocation() {
+        // 3 px per 8 ms, about 0.4 px per ms
+        Trace trace = new Trace().down(0, 500, 500);
+        for (int i = 1; i <= 60; i++) {
+            trace.move(i * 8, 500, 500 + i * 3);
+        }
+        trace.up(61 * 8, 500, 500 + 60 * 3);
+        for (int offsetMode : OFFSET_MODES) {
+            Cost cost = replay(offsetMode, trace);
+            assertWithinBudget(cost);
+            assertTrue(cost.toString(), cost.maxOffset > 0);
+        }
+    }
+
+    @Test
+    public void flingCostsNoLayoutNorAllocation() {
+        Trace trace = new Trace().down(0, 500, 500);
+        for (int i = 1; i <= 8; i++) {
+            trace.move(i * 8, 500, 500 + i * 40);
+        }
+        trace.up(9 * 8, 500, 500 + 8 * 40);
+        for (int offsetMode : OFFSET_MODES) {
+            Cost cost = replay(offsetMode, trace);
+            assertWithinBudget(cost);
+            // released at speed, the spring carries the content on for a while
+            assertTrue(cost.toString(), cost.frames > 10);
+        }
+    }
+
+    @Test
+    public void pointerHandoffCostsNoLayoutNorAllocationNorJump() {
+        // the second finger goes down 600 px below the first one and takes over, then the first one is lifted
+        Trace trace = new Trace().down(0, 500, 500);
+        for (int i = 1; i <= 20; i++) {
+            trace.move(i * 8, 500, 500 + i * 4);
+        }
+        trace.pointerDown(21 * 8, 500, 580, 500, 1180);
+        for (int i = 1; i <= 20; i++) {
+            trace.moveBoth((21 + i) * 8, 500, 580 - i * 2, 500, 1180 + i * 4);
+        }
+        trace.pointerUp(0, 42 * 8, 500, 540, 500, 1260);
+        for (int i = 1; i <= 20; i++) {
+            trace.move((42 + i) * 8, 500, 1260 + i * 4);
+        }
+        trace.up(63 * 8, 500, 1340);
+        for (int offsetMode : OFFSET_MODES) {
+            Cost cost = replay(offsetMode, trace);
+            assertWithinBudget(cost);
+            // two moves of 4 px per frame, resisted, the other pointer never shows up in the offset
+            assertTrue(cost.toString(), cost.maxDragStep <= 2 * 4 / BoundLayout.DRAGGING_RESISTANCE + 1);
+            assertTrue(cost.toString(), cost.maxOffset > 60 * 4 / BoundLayout.DRAGGING_RESISTANCE - 10);
+        }
+    }
+
+    @Test
+    public void dragDuringSettleCostsNoLayoutNorAllocationNorJump() {
+        Trace trace = new Trace().down(0, 500, 500);
+        for (int i = 1; i <= 20; i++) {
+            trace.move(i * 8, 500, 500 + i * 15);
+        }
+        trace.up(21 * 8, 500, 800);
+        // caught 5 frames into settling, elsewhere than it was released
+        trace.down(21 * 8 + 80, 500, 300);
+        for (int i = 1; i <= 20; i++) {
+            trace.move(21 * 8 + 80 + i * 8, 500, 300 + i * 4);
+        }
+        trace.up(21 * 8 + 80 + 21 * 8, 500, 380);
+        for (int offsetMode : OFFSET_MODES) {
+            Cost cost = replay(offsetMode, trace);
+            assertWithinBudget(cost);
+            // two moves of 15 px per frame, resisted, the content is caught where the spring left it
+            assertTrue(cost.toString(), cost.maxDragStep <= 2 * 15 / BoundLayout.DRAGGING_RESISTANCE + 1);
+        }
+    }
+
+    private static void assertWithinBudget(Cost cost) {
+        String message = cost.toString();
+        assertEquals(message, 0, cost.requestLayouts);
+        assertEquals(message, 0, cost.measures);
+        assertEquals(message, 0, cost.layouts);
+        // moves are coalesced, only frames move the children
+        assertEquals(message, 0, cost.moveInvalidations);
+        assertTrue(message, cost.invalidations > 0);
+        assertEquals(message, 0, cost.moveBytes);
+        assertEquals(message, 0, cost.frameBytes);
+        assertEquals(message, BoundLayout.STATE_IDLE, cost.state);
+    }
+
+    private Cost replay(int offsetMode, Trace trace) {
+        replay(createLayout(offsetMode), trace);
+        Cost cost = null;
+        for (int i = 0; i < MEASURED_REPLAYS; i++) {
+            Cost replayCost = replay(createLayout(offsetMode), trace);
+            if (cost == null || replayCost.moveBytes + replayCost.frameBytes < cost.moveBytes + cost.frameBytes) {
+                cost = replayCost;
+            }
+        }
+        cost.offsetMode = offsetMode;
+        return cost;
+    }
+
+    private Cost replay(CountingBoundLayout layout, Trace trace) {
+        final Cost cost = new Cost();
+        layout.setOnBoundListener(new BoundLayout.OnBoundListener() {
+            @Override
+            public void onBoundStateChanged(int state) {
+                cost.state = state;
+            }
+
+            @Override
+            public void onBoundProgress(int edge, int offset, float fraction) {
+                if (cost.state == BoundLayout.STATE_DRAGGING) {
+                    cost.maxDragStep = Math.max(cost.maxDragStep, Math.abs(offset - cost.offset));
+                }
+                cost.maxOffset = Math.max(cost.maxOffset, offset);
+                cost.offset = offset;
+            }
+        });
+        long start = SystemClock.uptimeMillis();
+        ArrayList<MotionEvent> events = trace.obtain(start);
+        layout.clearCounts();
+        for (int i = 0, size = events.size(); i < size; i++) {
+            MotionEvent event = events.get(i);
+            while (SystemClock.uptimeMillis() + ShadowFrameChoreographer.FRAME_INTERVAL_MILLIS <= event.getEventTime()) {
+                frame(layout, cost);
+            }
+            if (event.getActionMasked() == MotionEvent.ACTION_DOWN) {
+                mTracker.clear();
+            }
+            int invalidations = layout.invalidations;
+            long bytes = allocatedBytes();
+            layout.dispatchTouchEvent(event);
+            bytes = allocatedBytes() - bytes - mAllocationOverhead - trackerBytes(event);
+            if (event.getActionMasked() == MotionEvent.ACTION_MOVE) {
+                cost.moveInvalidations += layout.invalidations - invalidations;
+                cost.moveBytes += bytes;
+                cost.moves++;
+            }
+        }
+        while (ShadowFrameChoreographer.hasPendingFrame() && cost.frames < MAX_SETTLE_FRAMES) {
+            frame(layout, cost);
+        }
+        cost.requestLayouts = layout.requestLayouts;
+        cost.measures = layout.measures;
+        cost.layouts = layout.layouts;
+        cost.invalidations = layout.invalidations;
+        return cost;
+    }
+
+    /**
+     * run the frame callbacks and a traversal if one was requested, then draw, only the frame callbacks are
+     * counted for allocations, the traversal is counted by its measure and layout passes
+     */
+    private void frame(CountingBoundLayout layout, Cost cost) {
+        if (ShadowFrameChoreographer.hasPendingFrame()) {
+            cost.frames++;
+        }
+        long frameTimeNanos = ShadowFrameChoreographer.beginFrame();
+        long bytes = allocatedBytes();
+        ShadowFrameChoreographer.runFrameCallbacks(frameTimeNanos);
+        cost.frameBytes += allocatedBytes() - bytes - mAllocationOverhead;
+        ShadowFrameChoreographer.runCallbacks();
+        // drawing marks the children drawn again, the next change of one of them invalidates again
+        layout.drawChildren(mCanvas);
+    }
+
+    /**
+     * @return bytes the velocity tracker allocates for the event, native on devices but java under robolectric
+     */
+    private long trackerBytes(MotionEvent event) {
+        long bytes = allocatedBytes();
+        mTracker.addMovement(event);
+        return allocatedBytes() - bytes - mAllocationOverhead;
+    }
+
+    private CountingBoundLayout createLayout(int offsetMode) {
+        CountingBoundLayout layout = new CountingBoundLayout(mActivity);
+        layout.setOrientation(BoundLayout.VERTICAL);
+        layout.setOffsetMode(offsetMode);
+        layout.setHeaderView(new View(mActivity));
+        layout.setContentView(new View(mActivity));
+        layout.setFooterView(new View(mActivity));
+        for (int i = 0; i < layout.getChildCount(); i++) {
+            View child = layout.getChildAt(i);
+            child.setLayoutParams(new BoundLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
+                    i == 1 ? ViewGroup.LayoutParams.MATCH_PARENT : EDGE_SIZE));
+        }
+        mActivity.setContentView(layout);
+        ShadowFrameChoreographer.doFrame();
+        // robolectric lays out the window at a zero size
+        View root = layout.getRootView();
+        root.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        root.layout(0, 0, WIDTH, HEIGHT);
+        layout.drawChildren(mCanvas);
+        return layout;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * cost of a gesture, from the down until the content settled
+     */
+    private static class Cost {
+
+        int offsetMode;
+        int frames;
+        int moves;
+        int requestLayouts;
+        int measures;
+        int layouts;
+        int invalidations;
+        int moveInvalidations;
+        long moveBytes;
+        long frameBytes;
+        int state;
+        int offset;
+        int maxOffset;
+        int maxDragStep;
+
+        @Override
+        public String toString() {
+            return "offsetMode=" + offsetMode + " frames=" + frames + " moves=" + moves +
+                    " requestLayouts=" + requestLayouts + " measures=" + measures + " layouts=" + layouts +
+                    " invalidations=" + invalidations + " moveInvalidations=" + moveInvalidations +
+                    " moveBytes=" + moveBytes + " frameBytes=" + frameBytes + " state=" + state +
+                    " maxOffset=" + maxOffset + " maxDragStep=" + maxDragStep;
+        }
+    }
+
+    /**
+     * touch samples at ms from the start of the replay, of one finger or two, such as recorded from a device
+     */
+    private static class Trace {
+
+        private final ArrayList<Sample> mSamples = new ArrayList<>();
+        private int mPointerId;
+
+        Trace down(long time, float x, float y) {
+            mPointerId = 0;
+            return add(time, MotionEvent.ACTION_DOWN, 0, x, y);
+        }
+
+        Trace move(long time, float x, float y) {
+            return add(time, MotionEvent.ACTION_MOVE, 0, x, y);
+        }
+
+        Trace up(long time, float x, float y) {
+            return add(time, MotionEvent.ACTION_UP, 0, x, y);
+        }
+
+        /**
+         * the second finger goes down as pointer 1
+         */
+        Trace pointerDown(long time, float x0, float y0, float x1, float y1) {
+            return add(time, MotionEvent.ACTION_POINTER_DOWN, 1, x0, y0, x1, y1);
+        }
+
+        Trace moveBoth(long time, float x0, float y0, float x1, float y1) {
+            return add(time, MotionEvent.ACTION_MOVE, 0, x0, y0, x1, y1);
+        }
+
+        /**
+         * @param index pointer lifted, the other one goes on alone
+         */
+        Trace pointerUp(int index, long time, float x0, float y0, float x1, float y1) {
+            add(time, MotionEvent.ACTION_POINTER_UP, index, x0, y0, x1, y1);
+            mPointerId = 1 - index;
+            return this;
+        }
+
+        private Trace add(long time, int action, int actionIndex, float... coords) {
+            mSamples.add(new Sample(time, action, actionIndex, mPointerId, coords));
+            return this;
+        }
+
+        ArrayList<MotionEvent> obtain(long start) {
+            ArrayList<MotionEvent> events = new ArrayList<>(mSamples.size());
+            long downTime = start;
+            for (int i = 0, size = mSamples.size(); i < size; i++) {
+                Sample sample = mSamples.get(i);
+                long time = start + sample.time;
+                if (sample.action == MotionEvent.ACTION_DOWN) {
+                    downTime = time;
+                }
+                float[] coords = sample.coords;
+                MotionEvent event = MotionEvent.obtain(downTime, time, sample.action, coords[0], coords[1], 0);
+                ShadowMotionEvent shadow = shadowOf(event);
+                if (coords.length > 2) {
+                    shadow.setPointer2(coords[2], coords[3]);
+                    shadow.setPointerIds(0, 1);
+                    shadow.setPointerIndex(sample.actionIndex);
+                } else {
+                    shadow.setPointerIds(sample.pointerId, 1 - sample.pointerId);
+                }
+                events.add(event);
+            }
+            return events;
+        }
+    }
+
+    private static class Sample {
+
+        final long time;
+        final int action;
+        final int actionIndex;
+        // id of the only pointer, two pointers are always 0 and 1
+        final int pointerId;
+        final float[] coords;
+
+        Sample(long time, int action, int actionIndex, int pointerId, float[] coords) {
+            this.time = time;
+            this.action = action;
+            this.actionIndex = actionIndex;
+            this.pointerId = pointerId;
+            this.coords = coords;
+        }
+    }
+
+    /**
+     * counts what the layout is asked to do, invalidations of the children reach it on their way to the window
+     */
+    private static class CountingBoundLayout extends BoundLayout {
+
+        int requestLayouts;
+        int measures;
+        int layouts;
+        int invalidations;
+
+        CountingBoundLayout(Context context) {
+            super(context);
+        }
+
+        void clearCounts() {
+            requestLayouts = 0;
+            measures = 0;
+            layouts = 0;
+            invalidations = 0;
+        }
+
+        void drawChildren(Canvas canvas) {
+            dispatchDraw(canvas);
+        }
+
+        @Override
+        public void requestLayout() {
+            requestLayouts++;
+            super.requestLayout();
+        }
+
+        @Override
+        protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+            measures++;
+            super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+        }
+
+        @Override
+        protected void onLayout(boolean changed, int l, int t, int r, int b) {
+            layouts++;
+            super.onLayout(changed, l, t, r, b);
+        }
+
+        @Override
+        public void invalidate() {
+            invalidations++;
+            super.invalidate();
+        }
+
+        @Override
+        public ViewParent invalidateChildInParent(int[] location, Rect dirty) {
+            invalidations++;
+            return super.invalidateChildInParent(location, dirty);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.androidev.boundlayout;
+
+import android.os.SystemClock;
+import android.view.Choreographer;
+
+import org.robolectric.annotation.Implementation;
+import org.robolectric.annotation.Implements;
+import org.robolectric.shadows.ShadowChoreographer;
+
+import java.util.ArrayList;
+
+/**
+ * Choreographer driven by the test, frame callbacks only run when the test advances a frame, and they are told
+ * the time the clock was advanced to, the same time {@link SystemClock}, {@link System#nanoTime()} and the
+ * MotionEvents of the test tell under Robolectric. Callbacks posted by type, such as the traversals of the window,
+ * run after the frame callbacks of the same frame, as on a device.
+ */
+@Implements(Choreographer.class)
+public class ShadowFrameChoreographer extends ShadowChoreographer {
+
+    static final long FRAME_INTERVAL_MILLIS = 16;
+    private static final long NANOS_PER_MILLI = 1000000;
+
+    private static final ArrayList<Choreographer.FrameCallback> sCallbacks = new ArrayList<>();
+    private static final ArrayList<Choreographer.FrameCallback> sFrameCallbacks = new ArrayList<>();
+    private static final ArrayList<Runnable> sRunnables = new ArrayList<>();
+    private static final ArrayList<Runnable> sFrameRunnables = new ArrayList<>();
+
+    @Implementation
+    public void postFrameCallbackDelayed(Choreographer.FrameCallback callback, long delayMillis) {
+        sCallbacks.add(callback);
+    }
+
+    @Implementation
+    public void removeFrameCallback(Choreographer.FrameCallback callback) {
+        // a callback removed by another one of the same frame does not run any more
+        removeAll(sCallbacks, callback);
+        removeAll(sFrameCallbacks, callback);
+    }
+
+    @Implementation
+    public void postCallbackDelayed(int callbackType, Runnable action, Object token, long delayMillis) {
+        sRunnables.add(action);
+    }
+
+    @Implementation
+    public void removeCallbacks(int callbackType, Runnable action, Object token) {
+        removeAll(sRunnables, action);
+        removeAll(sFrameRunnables, action);
+    }
+
+    @Implementation
+    public long getFrameTimeNanos() {
+        return SystemClock.uptimeMillis() * NANOS_PER_MILLI;
+    }
+
+    private static <T> void removeAll(ArrayList<T> callbacks, T callback) {
+        for (int i = callbacks.size() - 1; i >= 0; i--) {
+            if (callbacks.get(i) == callback) {
+                callbacks.remove(i);
+            }
+        }
+    }
+
+    static boolean hasPendingFrame() {
+        return !sCallbacks.isEmpty() || !sRunnables.isEmpty();
+    }
+
+    /**
+     * advance the clock by a frame interval and run the callbacks posted before, callbacks posted by them run
+     * on the next frame
+     */
+    static void doFrame() {
+        runFrameCallbacks(beginFrame());
+        runCallbacks();
+    }
+
+    /**
+     * advance the clock by a frame interval, messages due by then are handled
+     *
+     * @return the frame time in ns
+     */
+    static long beginFrame() {
+        long frameTimeMillis = SystemClock.uptimeMillis() + FRAME_INTERVAL_MILLIS;
+        SystemClock.setCurrentTimeMillis(frameTimeMillis);
+        return frameTimeMillis * NANOS_PER_MILLI;
+    }
+
+    static void runFrameCallbacks(long frameTimeNanos) {
+        for (int i = 0, size = sCallbacks.size(); i < size; i++) {
+            sFrameCallbacks.add(sCallbacks.get(i));
+        }
+        sCallbacks.clear();
+        while (!sFrameCallbacks.isEmpty()) {
+            sFrameCallbacks.remove(0).doFrame(frameTimeNanos);
+        }
+    }
+
+    /**
+     * run the callbacks posted by type, after the frame callbacks
+     */
+    static void runCallbacks() {
+        for (int i = 0, size = sRunnables.size(); i < size; i++) {
+            sFrameRunnables.add(sRunnables.get(i));
+        }
+        sRunnables.clear();
+        while (!sFrameRunnables.isEmpty()) {
+            sFrameRunnables.remove(0).run();
+        }
+    }
+
+    /**
+     * run frames until no callback is posted any more, such as until the content settled
+     *
+     * @return the number of frames run
+     */
+    static int doFramesUntilIdle(int maxFrames) {
+        int frames = 0;
+        while (hasPendingFrame() && frames < maxFrames) {
+            doFrame();
+            frames++;
+        }
+        return frames;
+    }
+
+    static void clear() {
+        sCallbacks.clear();
+        sFrameCallbacks.clear();
+        sRunnables.clear();
+        sFrameRunnables.clear();
+    }
+}
@@ -0,0 +1,31 @@
+package com.androidev.boundlayout;
+
+import android.content.Context;
+import android.view.accessibility.AccessibilityManager;
+
+import org.robolectric.annotation.Implementation;
+import org.robolectric.annotation.Implements;
+import org.robolectric.shadows.ShadowAccessibilityManager;
+
+/**
+ * Robolectric builds a new accessibility service on every {@link AccessibilityManager#getInstance}, which
+ * {@link android.view.View#offsetLeftAndRight} asks on every call, one instance is shared instead so the offset
+ * paths are not timed by the service setup and do not slow down with every registered observer.
+ */
+@Implements(AccessibilityManager.class)
+public class ShadowSharedAccessibilityManager extends ShadowAccessibilityManager {
+
+    private static AccessibilityManager sInstance;
+
+    @Implementation
+    public static AccessibilityManager getInstance(Context context) throws Exception {
+        if (sInstance == null) {
+            sInstance = ShadowAccessibilityManager.getInstance(context);
+        }
+        return sInstance;
+    }
+
+    static void clear() {
+        sInstance = null;
+    }
+}